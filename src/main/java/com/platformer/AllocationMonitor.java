@@ -0,0 +1,99 @@
+package com.platformer;
+
+// imports
+import java.lang.management.ManagementFactory;
+
+/**
+ * Development check that the game tick allocates nothing once the level is running.
+ * Enabled by starting the game with {@code -Dplatformer.allocationCheck=<ticks>}. After
+ * {@link AllocationMonitor#WARMUP_TICKS} ticks, the bytes allocated by the thread during the
+ * next ticks are added up with {@link com.sun.management.ThreadMXBean}, and reported once
+ * the number of ticks given is reached. Disabled monitors cost one branch per tick.
+ */
+public class AllocationMonitor {
+
+    /**
+     * Ticks skipped before measuring, so loading and class initialization are not counted.
+     */
+    private static final int WARMUP_TICKS = 120;
+
+    /**
+     * Bean used to read the bytes allocated by the current thread, or {@code null} if disabled.
+     */
+    private final com.sun.management.ThreadMXBean threads;
+
+    /**
+     * Number of ticks to measure.
+     */
+    private final int measuredTicks;
+
+    /**
+     * Number of ticks seen so far.
+     */
+    private int ticks;
+
+    /**
+     * Bytes allocated by the thread when the current tick began.
+     */
+    private long tickStart;
+
+    /**
+     * Bytes allocated during the measured ticks.
+     */
+    private long allocated;
+
+    /**
+     * Number of measured ticks that allocated.
+     */
+    private int allocatingTicks;
+
+    /**
+     * Creates a monitor, enabled if the {@code platformer.allocationCheck} property is set
+     * and the virtual machine can measure allocation.
+     */
+    public AllocationMonitor() {
+        int measured = Integer.getInteger("platformer.allocationCheck", 0);
+        com.sun.management.ThreadMXBean bean = null;
+        if (measured > 0 && ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean b
+                && b.isThreadAllocatedMemorySupported()) {
+            b.setThreadAllocatedMemoryEnabled(true);
+            bean = b;
+        }
+        threads = bean;
+        measuredTicks = measured;
+    }
+
+    /**
+     * Marks the start of a tick.
+     */
+    public void begin() {
+        if (threads == null || ticks < WARMUP_TICKS) return;
+        tickStart = threads.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Marks the end of a tick, and reports the result once enough ticks have been measured.
+     */
+    public void end() {
+        if (threads == null) return;
+        if (ticks++ < WARMUP_TICKS) return;
+
+        long bytes = threads.getCurrentThreadAllocatedBytes() - tickStart;
+        if (bytes > 0) {
+            allocated += bytes;
+            allocatingTicks++;
+        }
+        if (ticks - WARMUP_TICKS < measuredTicks) return;
+
+        // report and start measuring again
+        if (allocated == 0)
+            System.err.println("Allocation check passed: " + measuredTicks + " ticks allocated nothing");
+        else
+            System.err.println("Allocation check failed: " + allocated + " bytes in "
+                    + allocatingTicks + " of " + measuredTicks + " ticks");
+        ticks = WARMUP_TICKS;
+        allocated = 0;
+        allocatingTicks = 0;
+    }
+
+}
@@ -0,0 +1,199 @@
+package com.platformer;
+
+// imports
+import javafx.scene.Node;
+import javafx.scene.transform.Translate;
+
+/**
+ * Camera following the player, updated once per frame after the player is moved. The camera
+ * only moves when its target leaves a dead zone around the centre of the view, eases towards
+ * where it should be instead of jumping there, and never shows anything outside the level.
+ * The layer it scrolls is moved by a single {@link Translate}, which is only written when the
+ * camera moves, so scrolling never invalidates the layout of the layer.
+ */
+public class Camera {
+
+    /**
+     * Transform scrolling the layer.
+     */
+    private final Translate transform = new Translate();
+
+    /**
+     * Width of the view.
+     */
+    private final int viewWidth;
+
+    /**
+     * Height of the view.
+     */
+    private final int viewHeight;
+
+    /**
+     * Width of the dead zone, centred on the view.
+     */
+    private final int deadZoneWidth;
+
+    /**
+     * Height of the dead zone, centred on the view.
+     */
+    private final int deadZoneHeight;
+
+    /**
+     * Seconds for the camera to close most of the distance to where it should be,
+     * or {@code 0} to move there at once.
+     */
+    private final double smoothing;
+
+    /**
+     * Width of the level.
+     */
+    private int levelWidth;
+
+    /**
+     * Height of the level.
+     */
+    private int levelHeight;
+
+    /**
+     * x coordinate of the left side of the view in the level.
+     */
+    private double left;
+
+    /**
+     * y coordinate of the top side of the view in the level.
+     */
+    private double top;
+
+    /**
+     * Time of the last update, in nanoseconds.
+     */
+    private long lastTime;
+
+    /**
+     * If the camera reached where it should be at the last update.
+     */
+    private boolean settled;
+
+    /**
+     * If the next update moves the camera at once.
+     */
+    private boolean snap = true;
+
+    /**
+     * Creates a {@link Camera}.
+     *
+     * @param viewWidth width of the view
+     * @param viewHeight height of the view
+     * @param deadZoneWidth width of the dead zone, or {@code 0} to always centre the target
+     * @param deadZoneHeight height of the dead zone, or {@code 0} to always centre the target
+     * @param smoothing seconds for the camera to close most of the distance, or {@code 0} for none
+     */
+    public Camera(int viewWidth, int viewHeight, int deadZoneWidth, int deadZoneHeight, double smoothing) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.deadZoneWidth = deadZoneWidth;
+        this.deadZoneHeight = deadZoneHeight;
+        this.smoothing = smoothing;
+    }
+
+    /**
+     * Makes the camera scroll a node.
+     *
+     * @param node node to scroll
+     */
+    public void attach(Node node) {
+        node.getTransforms().setAll(transform);
+    }
+
+    /**
+     * Sets the bounds of a new level. The next update moves the camera at once.
+     *
+     * @param levelWidth width of the level
+     * @param levelHeight height of the level
+     */
+    public void reset(int levelWidth, int levelHeight) {
+        this.levelWidth = levelWidth;
+        this.levelHeight = levelHeight;
+        snap = true;
+    }
+
+    /**
+     * Moves the camera towards a target, once per frame. The camera moves at once if the
+     * target is more than a view away, as when the player is sent back to spawn.
+     *
+     * @param x x coordinate of the target
+     * @param y y coordinate of the target
+     * @param now time of the frame, in nanoseconds
+     */
+    public void update(double x, double y, long now) {
+        double goalLeft = follow(left, x, viewWidth, deadZoneWidth, levelWidth);
+        double goalTop = follow(top, y, viewHeight, deadZoneHeight, levelHeight);
+
+        // ease towards the goal
+        boolean far = Math.abs(goalLeft - left) > viewWidth || Math.abs(goalTop - top) > viewHeight;
+        if (snap || far || smoothing <= 0) {
+            left = goalLeft;
+            top = goalTop;
+        }
+        else {
+            double step = 1 - Math.exp(-(now - lastTime) / 1e9 / smoothing);
+            left += (goalLeft - left) * step;
+            top += (goalTop - top) * step;
+        }
+
+        // stop easing within half a pixel
+        if (Math.abs(goalLeft - left) < 0.5 && Math.abs(goalTop - top) < 0.5) {
+            left = goalLeft;
+            top = goalTop;
+        }
+        settled = left == goalLeft && top == goalTop;
+        snap = false;
+        lastTime = now;
+
+        // one write, only when the camera moved
+        if (transform.getX() != -left) transform.setX(-left);
+        if (transform.getY() != -top) transform.setY(-top);
+    }
+
+    /**
+     * @return if the camera reached where it should be, so it does not move until its target does
+     */
+    public boolean isSettled() {
+        return settled;
+    }
+
+    /**
+     * @return x coordinate of the left side of the view in the level
+     */
+    public double getLeft() {
+        return left;
+    }
+
+    /**
+     * @return y coordinate of the top side of the view in the level
+     */
+    public double getTop() {
+        return top;
+    }
+
+    /**
+     * Finds where the view should start on one axis, so the target is inside the dead zone
+     * and the view is inside the level.
+     *
+     * @param start current start of the view
+     * @param target coordinate of the target
+     * @param view length of the view
+     * @param deadZone length of the dead zone
+     * @param level length of the level
+     * @return start of the view
+     */
+    private static double follow(double start, double target, int view, int deadZone, int level) {
+        double centre = start + view / 2.0;
+        if (target < centre - deadZone / 2.0)
+            start = target + deadZone / 2.0 - view / 2.0;
+        else if (target > centre + deadZone / 2.0)
+            start = target - deadZone / 2.0 - view / 2.0;
+        return Math.clamp(start, 0, Math.max(0, level - view));
+    }
+
+}
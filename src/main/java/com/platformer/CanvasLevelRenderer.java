@@ -0,0 +1,350 @@
+package com.platformer;
+
+// imports
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+import java.util.Arrays;
+
+/**
+ * {@link LevelRenderer} that draws every tile onto a few {@link Canvas} nodes. The level is split
+ * into square chunks of {@link CanvasLevelRenderer#CHUNK_SIZE} pixels, so no canvas is larger than
+ * a texture can be, and each chunk is drawn once when the level is loaded. Tiles are drawn in the
+ * order they were added, and the fill colour is only changed between tiles of different colours,
+ * so the merged ground of a level is drawn in a single batch. The edges of each tile are then shaded
+ * with regions of the {@link TileSprites} atlas, which never change the fill colour. Selected with
+ * {@code -Dplatformer.renderer=canvas}, and extended by {@link ImageLevelRenderer}. Only the
+ * chunks near the camera are attached, by a {@link CullingLayer}.
+ */
+public class CanvasLevelRenderer implements LevelRenderer {
+
+    /**
+     * Width and height of a chunk.
+     */
+    protected static final int CHUNK_SIZE = 1024;
+
+    /**
+     * Layer holding the nodes of the chunks near the camera.
+     */
+    private final CullingLayer root = new CullingLayer();
+
+    /**
+     * Atlas the edges of the tiles are shaded from.
+     */
+    private final TileSprites sprites;
+
+    /**
+     * Used to measure the text on buttons, so it is placed like on a {@link TextRectangle}.
+     */
+    private final Text measure = new Text();
+
+    /**
+     * Number of tiles.
+     */
+    private int size;
+
+    /**
+     * x coordinate of each tile.
+     */
+    private int[] x = new int[256];
+
+    /**
+     * y coordinate of each tile.
+     */
+    private int[] y = new int[256];
+
+    /**
+     * Width of each tile.
+     */
+    private int[] width = new int[256];
+
+    /**
+     * Height of each tile.
+     */
+    private int[] height = new int[256];
+
+    /**
+     * Colour of each tile.
+     */
+    private Color[] colors = new Color[256];
+
+    /**
+     * Text on each tile, or {@code null} if none.
+     */
+    private String[] labels = new String[256];
+
+    /**
+     * Type of each tile.
+     */
+    private char[] types = new char[256];
+
+    /**
+     * Canvas of each chunk, row by row.
+     */
+    private Canvas[] chunks = new Canvas[0];
+
+    /**
+     * Number of columns of chunks.
+     */
+    protected int chunkColumns;
+
+    /**
+     * Number of rows of chunks.
+     */
+    protected int chunkRows;
+
+    /**
+     * Creates an empty {@link CanvasLevelRenderer}.
+     *
+     * @param sprites atlas the edges of the tiles are shaded from
+     */
+    public CanvasLevelRenderer(TileSprites sprites) {
+        this.sprites = sprites;
+    }
+
+    @Override
+    public Node getNode() {
+        return root;
+    }
+
+    @Override
+    public void clear(int level) {
+        root.clear();
+        Arrays.fill(colors, 0, size, null);
+        Arrays.fill(labels, 0, size, null);
+        chunks = new Canvas[0];
+        chunkColumns = 0;
+        chunkRows = 0;
+        size = 0;
+    }
+
+    @Override
+    public int fillTile(int x, int y, int width, int height, Color color, char type) {
+        return add(x, y, width, height, color, type, null);
+    }
+
+    @Override
+    public int fillButton(int x, int y, int width, int height, Color color, char type, String label) {
+        return add(x, y, width, height, color, type, label);
+    }
+
+    @Override
+    public void finish(int width, int height) {
+        chunkColumns = Math.ceilDiv(width, CHUNK_SIZE);
+        chunkRows = Math.ceilDiv(height, CHUNK_SIZE);
+        chunks = new Canvas[chunkColumns * chunkRows];
+
+        for (int row = 0; row < chunkRows; row++) {
+            for (int column = 0; column < chunkColumns; column++) {
+                Canvas canvas = createChunk(column, row, width, height);
+                canvas.setLayoutX(column * CHUNK_SIZE);
+                canvas.setLayoutY(row * CHUNK_SIZE);
+                chunks[row * chunkColumns + column] = canvas;
+            }
+        }
+        addChunks(width, height);
+    }
+
+    @Override
+    public void setColor(int tile, Color color) {
+        colors[tile] = color;
+
+        // redraw the tile in every chunk it is in
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            int column = chunk % chunkColumns, row = chunk / chunkColumns;
+            if (!overlaps(tile, column, row)) continue;
+
+            GraphicsContext gc = chunks[chunk].getGraphicsContext2D();
+            gc.clearRect(x[tile] - column * CHUNK_SIZE, y[tile] - row * CHUNK_SIZE, width[tile], height[tile]);
+            gc.setFill(color);
+            draw(gc, tile, column, row);
+        }
+    }
+
+    @Override
+    public void setViewport(double left, double top, double width, double height) {
+        root.setViewport(left, top, width, height);
+    }
+
+    /**
+     * Adds every chunk to the {@link CullingLayer}, once the nodes of the chunks are made.
+     * The nodes come from {@link CanvasLevelRenderer#getChunk(int)}, which is only wired to
+     * the layer here, after any subclass is constructed.
+     *
+     * @param width width of the level
+     * @param height height of the level
+     */
+    protected void addChunks(int width, int height) {
+        root.clear();
+        root.setFactory(this::getChunk);
+        for (int row = 0; row < chunkRows; row++)
+            for (int column = 0; column < chunkColumns; column++)
+                root.add(
+                        column * CHUNK_SIZE, row * CHUNK_SIZE,
+                        Math.min(CHUNK_SIZE, width - column * CHUNK_SIZE),
+                        Math.min(CHUNK_SIZE, height - row * CHUNK_SIZE)
+                );
+        root.finish(width, height);
+    }
+
+    /**
+     * @param chunk index of the chunk, row by row
+     * @return node displaying the chunk
+     */
+    protected Node getChunk(int chunk) {
+        return chunks[chunk];
+    }
+
+    /**
+     * Creates a canvas for a chunk and draws the tiles in it, changing colour only when needed.
+     *
+     * @param column column of the chunk
+     * @param row row of the chunk
+     * @param width width of the level
+     * @param height height of the level
+     * @return canvas of the chunk
+     */
+    protected Canvas createChunk(int column, int row, int width, int height) {
+        Canvas canvas = new Canvas(
+                Math.min(CHUNK_SIZE, width - column * CHUNK_SIZE),
+                Math.min(CHUNK_SIZE, height - row * CHUNK_SIZE)
+        );
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        Color fill = null;
+        for (int tile = 0; tile < size; tile++) {
+            if (!overlaps(tile, column, row)) continue;
+
+            if (colors[tile] != fill) {
+                fill = colors[tile];
+                gc.setFill(fill);
+            }
+            draw(gc, tile, column, row);
+            if (labels[tile] != null) fill = null;
+        }
+        return canvas;
+    }
+
+    /**
+     * @param tile index of the tile
+     * @return the position and size of the tile, as x, y, width, and height
+     */
+    protected int[] getBox(int tile) {
+        return new int[]{x[tile], y[tile], width[tile], height[tile]};
+    }
+
+    /**
+     * @param tile index of the tile
+     * @return type of the tile
+     */
+    protected char getType(int tile) {
+        return types[tile];
+    }
+
+    /**
+     * @return number of tiles
+     */
+    protected int size() {
+        return size;
+    }
+
+    /**
+     * @param tile index of the tile
+     * @return colour of the tile
+     */
+    protected Color getColor(int tile) {
+        return colors[tile];
+    }
+
+    /**
+     * Changes the colour of a tile without redrawing it.
+     *
+     * @param tile index of the tile
+     * @param color new colour
+     */
+    protected void storeColor(int tile, Color color) {
+        colors[tile] = color;
+    }
+
+    /**
+     * Adds a tile to the end of the arrays.
+     *
+     * @param x x coordinate of the tile
+     * @param y y coordinate of the tile
+     * @param width width of the tile
+     * @param height height of the tile
+     * @param color colour of the tile
+     * @param type type of the tile
+     * @param label text on the tile, or {@code null} if none
+     * @return index of the tile
+     */
+    private int add(int x, int y, int width, int height, Color color, char type, String label) {
+        if (size == this.x.length) grow();
+
+        this.x[size] = x;
+        this.y[size] = y;
+        this.width[size] = width;
+        this.height[size] = height;
+        colors[size] = color;
+        labels[size] = label;
+        types[size] = type;
+        return size++;
+    }
+
+    /**
+     * Draws a tile onto the canvas of a chunk, with the fill colour already set, and shades its edges.
+     *
+     * @param gc graphics of the canvas
+     * @param tile index of the tile
+     * @param column column of the chunk
+     * @param row row of the chunk
+     */
+    private void draw(GraphicsContext gc, int tile, int column, int row) {
+        int left = x[tile] - column * CHUNK_SIZE, top = y[tile] - row * CHUNK_SIZE;
+        gc.fillRect(left, top, width[tile], height[tile]);
+        if (labels[tile] == null) {
+            if (sprites.has(types[tile]))
+                sprites.draw(gc, types[tile], x[tile], y[tile], width[tile], height[tile], column * CHUNK_SIZE, row * CHUNK_SIZE);
+            return;
+        }
+
+        // text placed like on a TextRectangle
+        Font font = Font.font(null, FontWeight.NORMAL, height[tile] * 0.6);
+        measure.setFont(font);
+        measure.setText(labels[tile]);
+        double textWidth = measure.getBoundsInLocal().getWidth();
+        double textHeight = measure.getBoundsInLocal().getHeight();
+        gc.setFont(font);
+        gc.setFill(Color.BLACK);
+        gc.fillText(labels[tile], left + (width[tile] - textWidth) / 2, top + height[tile] - textHeight / 2);
+    }
+
+    /**
+     * @param tile index of the tile
+     * @param column column of the chunk
+     * @param row row of the chunk
+     * @return if the tile is inside the chunk
+     */
+    protected boolean overlaps(int tile, int column, int row) {
+        return x[tile] < (column + 1) * CHUNK_SIZE && x[tile] + width[tile] > column * CHUNK_SIZE
+                && y[tile] < (row + 1) * CHUNK_SIZE && y[tile] + height[tile] > row * CHUNK_SIZE;
+    }
+
+    /**
+     * Doubles the length of the arrays.
+     */
+    private void grow() {
+        int length = x.length * 2;
+        x = Arrays.copyOf(x, length);
+        y = Arrays.copyOf(y, length);
+        width = Arrays.copyOf(width, length);
+        height = Arrays.copyOf(height, length);
+        colors = Arrays.copyOf(colors, length);
+        labels = Arrays.copyOf(labels, length);
+        types = Arrays.copyOf(types, length);
+    }
+
+}
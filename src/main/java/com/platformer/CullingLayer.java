@@ -0,0 +1,280 @@
+package com.platformer;
+
+// imports
+import javafx.scene.Group;
+import javafx.scene.Node;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Layer that only keeps the nodes near the camera in the scene graph. Each item is added as a
+ * box, and its node is asked for from a factory when the item comes near the camera. Items are
+ * bucketed by a {@link PlatformGrid} of {@link CullingLayer#CELL_SIZE} pixel cells, and the items
+ * in the cells around the viewport, plus {@link CullingLayer#MARGIN} more cells, are attached.
+ * Nothing is done until the camera moves into another cell, and then only the cells that entered
+ * or left are visited. Each item counts the attached cells it covers, and is attached when the
+ * first one enters and detached when the last one leaves. The cost of a frame and the number of
+ * attached nodes depend on the size of the viewport, not the size of the level.
+ */
+public class CullingLayer extends Group {
+
+    /**
+     * Width and height of a cell.
+     */
+    private static final int CELL_SIZE = 256;
+
+    /**
+     * Number of cells outside the viewport that are also attached.
+     */
+    private static final int MARGIN = 1;
+
+    /**
+     * Creates the node of an item when it comes near the camera.
+     */
+    private IntFunction<Node> factory;
+
+    /**
+     * Boxes of the items.
+     */
+    private final LevelGeometry boxes = new LevelGeometry();
+
+    /**
+     * Grid of the boxes of the items, with the items of each cell.
+     */
+    private final PlatformGrid grid = new PlatformGrid(CELL_SIZE);
+
+    /**
+     * Attached node of each item, or {@code null} if not attached.
+     */
+    private Node[] nodes = new Node[256];
+
+    /**
+     * Number of attached cells each item covers.
+     */
+    private int[] covered = new int[256];
+
+    /**
+     * Index of each attached item in {@link CullingLayer#attached}.
+     */
+    private int[] slots = new int[256];
+
+    /**
+     * Attached nodes, in the order of the children of the layer while only nodes are added.
+     */
+    private final ArrayList<Node> attached = new ArrayList<>();
+
+    /**
+     * Item of each node in {@link CullingLayer#attached}.
+     */
+    private int[] attachedItems = new int[256];
+
+    /**
+     * Cells attached, as first column, first row, last column, and last row.
+     */
+    private final int[] cells = {0, 0, -1, -1};
+
+    /**
+     * Number of nodes attached by the current update.
+     */
+    private int entering;
+
+    /**
+     * Number of nodes detached by the current update.
+     */
+    private int leaving;
+
+    /**
+     * Creates an empty {@link CullingLayer}.
+     *
+     * @param factory creates the node of an item, given its index
+     */
+    public CullingLayer(IntFunction<Node> factory) {
+        this.factory = factory;
+        grid.build(boxes, 0, 0);
+    }
+
+    /**
+     * Creates an empty {@link CullingLayer}, whose factory is set with
+     * {@link CullingLayer#setFactory(IntFunction)} before any item comes near the camera.
+     */
+    public CullingLayer() {
+        this(null);
+    }
+
+    /**
+     * @param factory creates the node of an item, given its index
+     */
+    public void setFactory(IntFunction<Node> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Removes all items and their nodes.
+     */
+    public void clear() {
+        getChildren().clear();
+        Arrays.fill(nodes, 0, boxes.size(), null);
+        Arrays.fill(covered, 0, boxes.size(), 0);
+        attached.clear();
+        boxes.clear();
+        grid.build(boxes, 0, 0);
+        cells[0] = cells[1] = 0;
+        cells[2] = cells[3] = -1;
+    }
+
+    /**
+     * Adds an item. Its node is created once it comes near the camera.
+     *
+     * @param x x coordinate of the item
+     * @param y y coordinate of the item
+     * @param width width of the item
+     * @param height height of the item
+     * @return index of the item
+     */
+    public int add(int x, int y, int width, int height) {
+        int item = boxes.add(x, y, width, height, 0, 0);
+        if (item == nodes.length) {
+            nodes = Arrays.copyOf(nodes, item * 2);
+            covered = Arrays.copyOf(covered, item * 2);
+            slots = Arrays.copyOf(slots, item * 2);
+            attachedItems = Arrays.copyOf(attachedItems, item * 2);
+        }
+        return item;
+    }
+
+    /**
+     * Buckets the items by cell, once every item of the level is added.
+     *
+     * @param width width of the level
+     * @param height height of the level
+     */
+    public void finish(int width, int height) {
+        grid.build(boxes, width, height);
+    }
+
+    /**
+     * @param item index of the item
+     * @return node of the item, or {@code null} if it is not near the camera
+     */
+    public Node getNode(int item) {
+        return nodes[item];
+    }
+
+    /**
+     * Attaches the items near the viewport and detaches the others, if the viewport
+     * moved into another cell. Cells entering are visited first, so an item still covered
+     * by another attached cell is never detached and attached again.
+     *
+     * @param left x coordinate of the left side of the viewport
+     * @param top y coordinate of the top side of the viewport
+     * @param width width of the viewport
+     * @param height height of the viewport
+     */
+    public void setViewport(double left, double top, double width, double height) {
+        // cells of the viewport grown by the margin
+        int col0 = grid.column((int) Math.floor(left) - MARGIN * CELL_SIZE);
+        int row0 = grid.row((int) Math.floor(top) - MARGIN * CELL_SIZE);
+        int col1 = grid.column((int) Math.ceil(left + width) + MARGIN * CELL_SIZE);
+        int row1 = grid.row((int) Math.ceil(top + height) + MARGIN * CELL_SIZE);
+
+        // nothing changes if the viewport stays in the same cells
+        int oldCol0 = cells[0], oldRow0 = cells[1], oldCol1 = cells[2], oldRow1 = cells[3];
+        if (col0 == oldCol0 && row0 == oldRow0 && col1 == oldCol1 && row1 == oldRow1) return;
+        cells[0] = col0;
+        cells[1] = row0;
+        cells[2] = col1;
+        cells[3] = row1;
+
+        // only visit the cells that entered or left
+        entering = leaving = 0;
+        visit(col0, row0, col1, row1, oldCol0, oldRow0, oldCol1, oldRow1, true);
+        visit(oldCol0, oldRow0, oldCol1, oldRow1, col0, row0, col1, row1, false);
+
+        // new nodes are at the end, and detached nodes were replaced by the last ones
+        if (leaving > 0)
+            getChildren().setAll(attached);
+        else if (entering > 0)
+            getChildren().addAll(attached.subList(attached.size() - entering, attached.size()));
+    }
+
+    /**
+     * Visits the cells of one range that are not in another range, and counts them as
+     * entering or leaving for each item they hold.
+     *
+     * @param col0 first column of the range
+     * @param row0 first row of the range
+     * @param col1 last column of the range
+     * @param row1 last row of the range
+     * @param skipCol0 first column of the range skipped
+     * @param skipRow0 first row of the range skipped
+     * @param skipCol1 last column of the range skipped
+     * @param skipRow1 last row of the range skipped
+     * @param enter if the cells are entering
+     */
+    private void visit(int col0, int row0, int col1, int row1,
+                       int skipCol0, int skipRow0, int skipCol1, int skipRow1, boolean enter) {
+        for (int row = row0; row <= row1; row++) {
+            // rows outside the skipped range are visited whole
+            if (row < skipRow0 || row > skipRow1 || skipCol0 > skipCol1) {
+                visitColumns(row, col0, col1, enter);
+                continue;
+            }
+
+            // otherwise only the columns on either side of it
+            visitColumns(row, col0, Math.min(col1, skipCol0 - 1), enter);
+            visitColumns(row, Math.max(col0, skipCol1 + 1), col1, enter);
+        }
+    }
+
+    /**
+     * Counts the cells of some columns of a row as entering or leaving for each item they hold.
+     *
+     * @param row row of the cells
+     * @param col0 first column
+     * @param col1 last column
+     * @param enter if the cells are entering
+     */
+    private void visitColumns(int row, int col0, int col1, boolean enter) {
+        for (int col = col0; col <= col1; col++) {
+            for (int i = 0; i < grid.count(col, row); i++) {
+                int item = grid.get(col, row, i);
+                if (enter) {
+                    if (covered[item]++ == 0) attach(item);
+                }
+                else if (--covered[item] == 0)
+                    detach(item);
+            }
+        }
+    }
+
+    /**
+     * Creates the node of an item and adds it to the end of {@link CullingLayer#attached}.
+     *
+     * @param item index of the item
+     */
+    private void attach(int item) {
+        nodes[item] = factory.apply(item);
+        slots[item] = attached.size();
+        attachedItems[attached.size()] = item;
+        attached.add(nodes[item]);
+        entering++;
+    }
+
+    /**
+     * Drops the node of an item, moving the last attached node into its place.
+     *
+     * @param item index of the item
+     */
+    private void detach(int item) {
+        int slot = slots[item], last = attached.size() - 1;
+        int moved = attachedItems[last];
+        attached.set(slot, attached.get(last));
+        attachedItems[slot] = moved;
+        slots[moved] = slot;
+        attached.remove(last);
+        nodes[item] = null;
+        leaving++;
+    }
+
+}
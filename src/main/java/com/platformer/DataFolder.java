@@ -0,0 +1,48 @@
+package com.platformer;
+
+// imports
+import java.nio.file.Path;
+
+/**
+ * Finds the folder the game saves level thumbnails in, so they are not written to the folder
+ * the game was started from. The folder is the one each system keeps application data in, and
+ * can be set with {@code -Dplatformer.dataDir=<folder>}.
+ */
+public final class DataFolder {
+
+    /**
+     * Name of the folder of the game inside the application data folder.
+     */
+    private static final String NAME = "Platformer";
+
+    /**
+     * Not created, only holds {@link DataFolder#resolve()}.
+     */
+    private DataFolder() {}
+
+    /**
+     * Finds the data folder. Uses {@code %APPDATA%} on Windows, {@code ~/Library/Application Support}
+     * on macOS, and {@code $XDG_DATA_HOME} or {@code ~/.local/share} elsewhere.
+     *
+     * @return folder to save data in, which may not exist yet
+     */
+    public static Path resolve() {
+        String folder = System.getProperty("platformer.dataDir");
+        if (folder != null) return Path.of(folder);
+
+        String os = System.getProperty("os.name", "").toLowerCase();
+        Path home = Path.of(System.getProperty("user.home"));
+        if (os.startsWith("windows")) {
+            String appData = System.getenv("APPDATA");
+            return appData != null ? Path.of(appData, NAME) : home.resolve("AppData").resolve("Roaming").resolve(NAME);
+        }
+        else if (os.startsWith("mac"))
+            return home.resolve("Library").resolve("Application Support").resolve(NAME);
+
+        // linux and other unix systems
+        String dataHome = System.getenv("XDG_DATA_HOME");
+        Path base = dataHome != null && !dataHome.isEmpty() ? Path.of(dataHome) : home.resolve(".local").resolve("share");
+        return base.resolve(NAME.toLowerCase());
+    }
+
+}
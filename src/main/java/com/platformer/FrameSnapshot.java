@@ -0,0 +1,100 @@
+package com.platformer;
+
+/**
+ * State of the game at the end of a tick, published by the simulation thread for the
+ * JavaFX Application Thread to draw. Snapshots are reused through a {@link TripleBuffer},
+ * so a snapshot is only written before it is published, and only read after.
+ */
+public class FrameSnapshot {
+
+    /**
+     * Scheduled time of the tick in nanoseconds.
+     */
+    private long time;
+
+    /**
+     * x coordinate of the left side of the player at the end of the tick before.
+     */
+    private int previousX;
+
+    /**
+     * y coordinate of the top side of the player at the end of the tick before.
+     */
+    private int previousY;
+
+    /**
+     * x coordinate of the left side of the player.
+     */
+    private int x;
+
+    /**
+     * y coordinate of the top side of the player.
+     */
+    private int y;
+
+    /**
+     * Death count of the current page, or {@code -1} if the page is not a level.
+     */
+    private int deaths;
+
+    /**
+     * Index of the platform the player spawns at.
+     */
+    private int startPoint;
+
+    /**
+     * Copies the state of the game into the snapshot.
+     *
+     * @param time scheduled time of the tick in nanoseconds
+     * @param player state of the player
+     * @param deaths death count of the current page, or {@code -1} if the page is not a level
+     * @param startPoint index of the platform the player spawns at
+     */
+    public void set(long time, PlayerState player, int deaths, int startPoint) {
+        this.time = time;
+        previousX = player.getPreviousLeft();
+        previousY = player.getPreviousTop();
+        x = player.getLeft();
+        y = player.getTop();
+        this.deaths = deaths;
+        this.startPoint = startPoint;
+    }
+
+    /**
+     * @return scheduled time of the tick in nanoseconds
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * @param alpha fraction of a tick from the previous position to the current one
+     * @return the x coordinate of the left side of the player between the two positions
+     */
+    public double interpolateLeft(double alpha) {
+        return previousX + (x - previousX) * alpha;
+    }
+
+    /**
+     * @param alpha fraction of a tick from the previous position to the current one
+     * @return the y coordinate of the top side of the player between the two positions
+     */
+    public double interpolateTop(double alpha) {
+        return previousY + (y - previousY) * alpha;
+    }
+
+    /**
+     * @return death count of the current page, or {@code -1} if the page is not a level
+     */
+    public int getDeaths() {
+        return deaths;
+    }
+
+    /**
+     * @return index of the platform the player spawns at
+     */
+    public int getStartPoint() {
+        return startPoint;
+    }
+
+}
@@ -1,5 +1,8 @@
 package com.platformer;
 
+// imports
+import java.nio.file.Path;
+
 /**
  * General values of the game.
  *
@@ -12,5 +15,32 @@ public interface GameValues {
     int PLAYER_SIZE = 20;
     int PLATFORM_SIZE = 30;
     int JUMP_HEIGHT = 15;
+    int TERMINAL_VELOCITY = 10;
+
+    // simulation ticks per second, and most ticks run in one frame to catch up
+    int TICK_RATE = 60;
+    int MAX_CATCH_UP_TICKS = 5;
+
+    // most frames drawn per second while playing
+    int FRAME_RATE_CAP = 60;
+
+    // camera dead zone around the centre of the view, and seconds to ease towards the player, 0 for none
+    int CAMERA_DEAD_ZONE_WIDTH = 0;
+    int CAMERA_DEAD_ZONE_HEIGHT = 0;
+    double CAMERA_SMOOTHING = 0;
+
+    // particles in a burst on death, on a new checkpoint, and on finishing a level
+    int DEATH_PARTICLES = 400;
+    int CHECKPOINT_PARTICLES = 150;
+    int FINISH_PARTICLES = 2000;
+
+    // draw the newest tick instead of between the last two, set with -Dplatformer.lowLatency=true
+    boolean LOW_LATENCY_INPUT = Boolean.getBoolean("platformer.lowLatency");
+
+    // backend drawing the level tiles, set with -Dplatformer.renderer=nodes, canvas, or image
+    String RENDERER = System.getProperty("platformer.renderer", "image");
+
+    // folder the level thumbnails are saved in, set with -Dplatformer.dataDir=<folder>
+    Path DATA_FOLDER = DataFolder.resolve();
 
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.platformer;
+
+// imports
+import javafx.scene.Group;
+import javafx.scene.Node;
+
+/**
+ * Heads-up display drawn over the level, kept on the top layer below any pop-up. Each widget
+ * keeps the value it shows and only changes its nodes when the value changes, so a frame where
+ * nothing changed costs nothing. Widgets are hidden instead of removed, so they keep their
+ * cached bitmap between pages.
+ */
+public class Hud extends Group {
+
+    /**
+     * Creates a {@link Hud} with its widgets.
+     *
+     * @param widgets widgets of the display
+     */
+    public Hud(Node... widgets) {
+        super(widgets);
+    }
+
+    /**
+     * Shows or hides a widget.
+     *
+     * @param widget widget of the display
+     * @param shown if the widget is shown
+     */
+    public void show(Node widget, boolean shown) {
+        if (widget.isVisible() != shown) widget.setVisible(shown);
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.platformer;
+
+// imports
+import javafx.scene.Group;
+import java.util.function.IntFunction;
+
+/**
+ * Widget of the {@link Hud} showing a number on a {@link TextRectangle}. The widget keeps the
+ * number it shows, and only builds its text and lays it out again when the number changes.
+ * The widget is cached as a bitmap, so while the number stays the same it is drawn without
+ * laying out its text again.
+ */
+public final class HudCounter extends Group {
+
+    /**
+     * Box the number is shown on.
+     */
+    private final TextRectangle box;
+
+    /**
+     * Builds the text shown for a number.
+     */
+    private final IntFunction<String> format;
+
+    /**
+     * Number shown, or {@link Integer#MIN_VALUE} if none yet.
+     */
+    private int shown = Integer.MIN_VALUE;
+
+    /**
+     * Creates a {@link HudCounter}.
+     *
+     * @param box box to show the number on
+     * @param format builds the text shown for a number
+     */
+    public HudCounter(TextRectangle box, IntFunction<String> format) {
+        this.box = box;
+        this.format = format;
+        getChildren().addAll(box, box.getText());
+        setCache(true);
+    }
+
+    /**
+     * Shows a number, doing nothing if it is already shown.
+     *
+     * @param value number to show
+     */
+    public void set(int value) {
+        if (value == shown) return;
+        shown = value;
+        box.setText(format.apply(value));
+    }
+
+}
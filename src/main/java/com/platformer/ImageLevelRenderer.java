@@ -0,0 +1,193 @@
+package com.platformer;
+
+// imports
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link LevelRenderer} that rasterizes the tiles of a level once into a {@link WritableImage}
+ * per chunk, and displays them with one {@link ImageView} each, so the scene graph only has to
+ * draw a few images however many tiles a level has. The images of the last few levels loaded are
+ * kept, and reused when the level is loaded again. Changing the colour of a tile only writes the
+ * pixels of that tile. Selected with {@code -Dplatformer.renderer=image}, which is the default.
+ */
+public class ImageLevelRenderer extends CanvasLevelRenderer {
+
+    /**
+     * Number of levels whose images are kept.
+     */
+    private static final int CACHED_LEVELS = 4;
+
+    /**
+     * Images of the levels loaded last, by level, with the least recently loaded first.
+     */
+    private final Map<Integer, Raster> cache = new LinkedHashMap<>(CACHED_LEVELS * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Raster> eldest) {
+            return size() > CACHED_LEVELS;
+        }
+    };
+
+    /**
+     * Level being loaded or displayed.
+     */
+    private int level;
+
+    /**
+     * Images of the level being displayed.
+     */
+    private Raster raster;
+
+    /**
+     * Atlas the edges of the tiles are shaded from.
+     */
+    private final TileSprites sprites;
+
+    /**
+     * Creates an empty {@link ImageLevelRenderer}.
+     *
+     * @param sprites atlas the edges of the tiles are shaded from
+     */
+    public ImageLevelRenderer(TileSprites sprites) {
+        super(sprites);
+        this.sprites = sprites;
+    }
+
+    @Override
+    public void clear(int level) {
+        super.clear(level);
+        this.level = level;
+        raster = null;
+    }
+
+    @Override
+    public void finish(int width, int height) {
+        chunkColumns = Math.ceilDiv(width, CHUNK_SIZE);
+        chunkRows = Math.ceilDiv(height, CHUNK_SIZE);
+
+        // reuse the images of the level, or draw them
+        raster = cache.get(level);
+        if (raster == null || raster.painted.length != size()) {
+            raster = rasterize(width, height);
+            cache.put(level, raster);
+        }
+
+        // undo colour changes made the last time the level was displayed
+        for (int tile = 0; tile < size(); tile++)
+            if (raster.painted[tile] != getColor(tile))
+                repaint(tile);
+
+        addChunks(width, height);
+    }
+
+    @Override
+    public void setColor(int tile, Color color) {
+        storeColor(tile, color);
+        repaint(tile);
+    }
+
+    @Override
+    protected Node getChunk(int chunk) {
+        return raster.views[chunk];
+    }
+
+    /**
+     * Draws every chunk of the level onto a canvas, and copies it into an image.
+     *
+     * @param width width of the level
+     * @param height height of the level
+     * @return images of the level
+     */
+    private Raster rasterize(int width, int height) {
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+
+        Raster raster = new Raster(chunkColumns * chunkRows, size());
+        for (int row = 0; row < chunkRows; row++) {
+            for (int column = 0; column < chunkColumns; column++) {
+                WritableImage image = createChunk(column, row, width, height).snapshot(parameters, null);
+                ImageView view = new ImageView(image);
+                view.setLayoutX(column * CHUNK_SIZE);
+                view.setLayoutY(row * CHUNK_SIZE);
+                raster.images[row * chunkColumns + column] = image;
+                raster.views[row * chunkColumns + column] = view;
+            }
+        }
+        for (int tile = 0; tile < size(); tile++)
+            raster.painted[tile] = getColor(tile);
+        return raster;
+    }
+
+    /**
+     * Writes the pixels of a tile in its current colour, with its edges shaded, in every chunk
+     * it is in. Only used for tiles without text.
+     *
+     * @param tile index of the tile
+     */
+    private void repaint(int tile) {
+        int[] box = getBox(tile);
+        Color color = getColor(tile);
+        int argb = TileSprites.argb(color);
+        char type = getType(tile);
+        boolean shaded = sprites.has(type);
+        for (int chunk = 0; chunk < raster.images.length; chunk++) {
+            int column = chunk % chunkColumns, row = chunk / chunkColumns;
+            if (!overlaps(tile, column, row)) continue;
+
+            // tile clipped to the chunk
+            WritableImage image = raster.images[chunk];
+            int left = Math.max(0, box[0] - column * CHUNK_SIZE);
+            int top = Math.max(0, box[1] - row * CHUNK_SIZE);
+            int right = Math.min((int) image.getWidth(), box[0] + box[2] - column * CHUNK_SIZE);
+            int bottom = Math.min((int) image.getHeight(), box[1] + box[3] - row * CHUNK_SIZE);
+
+            PixelWriter writer = image.getPixelWriter();
+            int originX = column * CHUNK_SIZE, originY = row * CHUNK_SIZE;
+            for (int y = top; y < bottom; y++)
+                for (int x = left; x < right; x++)
+                    writer.setArgb(x, y, shaded ? sprites.getPixel(type, originX + x, originY + y, argb) : argb);
+        }
+        raster.painted[tile] = color;
+    }
+
+    /**
+     * Images of a level, and the colour each tile was painted in.
+     */
+    private static class Raster {
+
+        /**
+         * Image of each chunk, row by row.
+         */
+        private final WritableImage[] images;
+
+        /**
+         * Node displaying each image.
+         */
+        private final ImageView[] views;
+
+        /**
+         * Colour each tile is painted in.
+         */
+        private final Color[] painted;
+
+        /**
+         * Creates empty arrays for the images of a level.
+         *
+         * @param chunks number of chunks
+         * @param tiles number of tiles
+         */
+        private Raster(int chunks, int tiles) {
+            images = new WritableImage[chunks];
+            views = new ImageView[chunks];
+            painted = new Color[tiles];
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.platformer;
+
+// imports
+import javafx.scene.input.KeyCode;
+
+/**
+ * Keys at the start of a tick, taken by {@link InputState#snapshot()}. Keys are stored as
+ * bitsets indexed by the ordinal of their {@link KeyCode}. A snapshot cannot be changed by
+ * its users, so every check in a tick sees the same keys even if key events arrive during it.
+ */
+public final class InputSnapshot {
+
+    /**
+     * Keys held down.
+     */
+    private final long[] held;
+
+    /**
+     * Keys pressed since the last snapshot.
+     */
+    private final long[] pressed;
+
+    /**
+     * Keys released since the last snapshot.
+     */
+    private final long[] released;
+
+    /**
+     * Time in nanoseconds each key was pressed, only kept for keys pressed since the last snapshot.
+     */
+    private final long[] pressTimes;
+
+    /**
+     * Creates a snapshot with no keys.
+     *
+     * @param words number of {@code long}s in each bitset
+     */
+    InputSnapshot(int words) {
+        held = new long[words];
+        pressed = new long[words];
+        released = new long[words];
+        pressTimes = new long[words * 64];
+    }
+
+    /**
+     * Copies one word of each bitset into the snapshot. Only called by {@link InputState}.
+     *
+     * @param word index of the word
+     * @param held keys held down
+     * @param pressed keys pressed since the last snapshot
+     * @param released keys released since the last snapshot
+     */
+    void set(int word, long held, long pressed, long released) {
+        this.held[word] = held;
+        this.pressed[word] = pressed;
+        this.released[word] = released;
+    }
+
+    /**
+     * Copies the time a key was pressed into the snapshot. Only called by {@link InputState}.
+     *
+     * @param bit ordinal of the key
+     * @param time time the key was pressed in nanoseconds
+     */
+    void setPressTime(int bit, long time) {
+        pressTimes[bit] = time;
+    }
+
+    /**
+     * @return if no key is held, pressed, or released
+     */
+    public boolean isEmpty() {
+        for (int word = 0; word < held.length; word++)
+            if ((held[word] | pressed[word] | released[word]) != 0) return false;
+        return true;
+    }
+
+    /**
+     * @param key key to check
+     * @return if the key is held down
+     */
+    public boolean isDown(KeyCode key) {
+        return InputState.get(held, key);
+    }
+
+    /**
+     * Checks if a key went down during the last tick. Held keys that repeat do not count.
+     *
+     * @param key key to check
+     * @return if the key was pressed
+     */
+    public boolean pressedThisTick(KeyCode key) {
+        return InputState.get(pressed, key);
+    }
+
+    /**
+     * @param key key to check
+     * @return if the key was released during the last tick
+     */
+    public boolean releasedThisTick(KeyCode key) {
+        return InputState.get(released, key);
+    }
+
+    /**
+     * @param key key pressed during the last tick
+     * @return time the key event arrived in nanoseconds, from {@link System#nanoTime()}
+     */
+    public long getPressTime(KeyCode key) {
+        return pressTimes[key.ordinal()];
+    }
+
+}
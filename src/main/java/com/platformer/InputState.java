@@ -0,0 +1,122 @@
+package com.platformer;
+
+// imports
+import javafx.scene.input.KeyCode;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keyboard state of the game, stored as bitsets indexed by the ordinal of each {@link KeyCode}.
+ * Key events set the bits as they arrive, and each tick starts by taking an {@link InputSnapshot}
+ * of them. Presses and releases are latched until the next snapshot, so a key tapped between two
+ * ticks is still seen once. The time each key event arrives is kept with it, so the delay until
+ * the key takes effect can be measured. No objects are created by key events or snapshots.
+ * <p>
+ * Key events arrive on the JavaFX Application Thread while snapshots are taken by the simulation
+ * thread, so the bits are changed atomically. Snapshots must only be taken by one thread at a time.
+ */
+public class InputState {
+
+    /**
+     * Number of {@code long}s needed to hold a bit for every {@link KeyCode}.
+     */
+    private static final int WORDS = (KeyCode.values().length + 63) / 64;
+
+    /**
+     * Keys held down.
+     */
+    private final AtomicLongArray held = new AtomicLongArray(WORDS);
+
+    /**
+     * Keys pressed since the last snapshot.
+     */
+    private final AtomicLongArray pressed = new AtomicLongArray(WORDS);
+
+    /**
+     * Keys released since the last snapshot.
+     */
+    private final AtomicLongArray released = new AtomicLongArray(WORDS);
+
+    /**
+     * Time in nanoseconds each key was last pressed.
+     */
+    private final AtomicLongArray pressTimes = new AtomicLongArray(WORDS * 64);
+
+    /**
+     * Two snapshots used in turn, so the snapshot of the last tick is never changed while
+     * the next one is taken.
+     */
+    private final InputSnapshot[] snapshots = {new InputSnapshot(WORDS), new InputSnapshot(WORDS)};
+
+    /**
+     * Index of the latest snapshot in {@link InputState#snapshots}.
+     */
+    private int latest;
+
+    /**
+     * Records a key going down. Repeated presses from holding the key are ignored.
+     *
+     * @param key key pressed
+     */
+    public void press(KeyCode key) {
+        int word = key.ordinal() >>> 6;
+        long bit = 1L << key.ordinal();
+        if ((held.getAndAccumulate(word, bit, (bits, b) -> bits | b) & bit) != 0) return;
+
+        pressTimes.set(key.ordinal(), System.nanoTime());
+        pressed.getAndAccumulate(word, bit, (bits, b) -> bits | b);
+    }
+
+    /**
+     * Records a key going up.
+     *
+     * @param key key released
+     */
+    public void release(KeyCode key) {
+        int word = key.ordinal() >>> 6;
+        long bit = 1L << key.ordinal();
+        if ((held.getAndAccumulate(word, bit, (bits, b) -> bits & ~b) & bit) != 0)
+            released.getAndAccumulate(word, bit, (bits, b) -> bits | b);
+    }
+
+    /**
+     * Releases every key, used when the window loses focus and release events would be lost.
+     */
+    public void releaseAll() {
+        for (int word = 0; word < WORDS; word++) {
+            long bits = held.getAndSet(word, 0);
+            released.getAndAccumulate(word, bits, (old, b) -> old | b);
+        }
+    }
+
+    /**
+     * Takes a snapshot of the keys for a new tick, and clears the latched presses and releases.
+     *
+     * @return snapshot of the keys
+     */
+    public InputSnapshot snapshot() {
+        latest ^= 1;
+        InputSnapshot snapshot = snapshots[latest];
+        for (int word = 0; word < WORDS; word++) {
+            long keysPressed = pressed.getAndSet(word, 0);
+            snapshot.set(word, held.get(word), keysPressed, released.getAndSet(word, 0));
+
+            // times of the keys pressed
+            for (long bits = keysPressed; bits != 0; bits &= bits - 1) {
+                int bit = word * 64 + Long.numberOfTrailingZeros(bits);
+                snapshot.setPressTime(bit, pressTimes.get(bit));
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * @param bits bitset of keys
+     * @param key key to check
+     * @return if the bit of the key is set
+     */
+    static boolean get(long[] bits, KeyCode key) {
+        int bit = key.ordinal();
+        return (bits[bit >>> 6] & 1L << bit) != 0;
+    }
+
+}
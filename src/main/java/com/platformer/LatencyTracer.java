@@ -0,0 +1,79 @@
+package com.platformer;
+
+// imports
+import javafx.application.Platform;
+import java.util.Arrays;
+
+/**
+ * Development tracer of the delay from a key event to the first movement of the player it
+ * causes. Enabled by starting the game with {@code -Dplatformer.latencyTrace=<samples>}. Each
+ * delay is stored in a fixed array, and once it is full the array is sorted in place and
+ * reused. The summary of the percentiles is printed on the JavaFX Application Thread,
+ * so the recording thread never waits on {@code System.err}. Recording allocates nothing,
+ * except for the one task handed off by the record that fills the array, and a disabled tracer
+ * costs one branch.
+ */
+public class LatencyTracer {
+
+    /**
+     * Delays recorded in nanoseconds, or {@code null} if disabled.
+     */
+    private final long[] samples;
+
+    /**
+     * Number of delays recorded.
+     */
+    private int count;
+
+    /**
+     * Creates a tracer, enabled if the {@code platformer.latencyTrace} property is set.
+     */
+    public LatencyTracer() {
+        int size = Integer.getInteger("platformer.latencyTrace", 0);
+        samples = size > 0 ? new long[size] : null;
+    }
+
+    /**
+     * @return if delays are recorded
+     */
+    public boolean isEnabled() {
+        return samples != null;
+    }
+
+    /**
+     * Records the delay from a key event to now.
+     *
+     * @param eventTime time of the key event in nanoseconds, from {@link System#nanoTime()}
+     */
+    public void record(long eventTime) {
+        if (samples == null) return;
+
+        samples[count++] = System.nanoTime() - eventTime;
+        if (count < samples.length) return;
+
+        // summarize before the array is reused
+        Arrays.sort(samples, 0, count);
+        int presses = count;
+        double p50 = percentile(samples, count, 50), p90 = percentile(samples, count, 90);
+        double p99 = percentile(samples, count, 99), max = samples[count - 1] / 1e6;
+        count = 0;
+
+        // report off the recording thread
+        Platform.runLater(() -> System.err.printf(
+                "Input latency over %d presses: p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                presses, p50, p90, p99, max
+        ));
+    }
+
+    /**
+     * @param sorted delays in nanoseconds, from lowest to highest
+     * @param count number of delays in the array
+     * @param percent percentile to find
+     * @return the delay at the percentile in milliseconds, by the nearest rank
+     */
+    private static double percentile(long[] sorted, int count, int percent) {
+        int rank = Math.max(1, (int) Math.ceil(percent / 100.0 * count));
+        return sorted[rank - 1] / 1e6;
+    }
+
+}
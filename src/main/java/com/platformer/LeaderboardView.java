@@ -0,0 +1,318 @@
+package com.platformer;
+
+// imports
+import javafx.scene.Group;
+import javafx.util.Pair;
+import java.util.Objects;
+
+import static com.platformer.RectangleColors.LEADERBOARD_DISPLAY_COLOR;
+import static com.platformer.RectangleTypes.UNINTERACTABLE_TYPE;
+
+/**
+ * Leaderboard shown as a grid with a column per level, holding its header and its entries.
+ * The grid is virtualized: only the cells that fit in the view have nodes, made once, and when
+ * the grid is scrolled with the mouse wheel the cells scrolled out are reused for the ones
+ * scrolled in. Each cell keeps what it shows and only changes its text when that changes, so
+ * showing the page again or updating the data only lays out the cells that changed. Opening
+ * the page costs the same however many levels and entries there are.
+ */
+public final class LeaderboardView extends Group {
+
+    /**
+     * Width of a column.
+     */
+    private static final int COLUMN_WIDTH = 120;
+
+    /**
+     * Distance from the start of a column to the start of the next.
+     */
+    private static final int COLUMN_PITCH = 135;
+
+    /**
+     * Height of the header of a column.
+     */
+    private static final int HEADER_HEIGHT = 30;
+
+    /**
+     * Height of an entry.
+     */
+    private static final int ROW_HEIGHT = 20;
+
+    /**
+     * Width of the view.
+     */
+    private final int width;
+
+    /**
+     * Height of the view.
+     */
+    private final int height;
+
+    /**
+     * Group of the headers, scrolled sideways.
+     */
+    private final Group headerGroup = new Group();
+
+    /**
+     * Group of the entries, scrolled in both directions.
+     */
+    private final Group entryGroup = new Group();
+
+    /**
+     * Cell of each header in the view.
+     */
+    private final Cell[] headers;
+
+    /**
+     * Cell of each entry in the view, by column and row.
+     */
+    private final Cell[][] entries;
+
+    /**
+     * Entries of each level, with the level as index. Unused entries have a score of
+     * {@link Integer#MAX_VALUE}.
+     */
+    private Pair<String, Integer>[][] leaderboard;
+
+    /**
+     * Most entries of any level.
+     */
+    private int maxEntries;
+
+    /**
+     * Distance scrolled sideways.
+     */
+    private double scrollX;
+
+    /**
+     * Distance scrolled down.
+     */
+    private double scrollY;
+
+    /**
+     * First column shown by the cells, or {@code -1} if the cells must be filled again.
+     */
+    private int firstColumn = -1;
+
+    /**
+     * First row shown by the cells, or {@code -1} if the cells must be filled again.
+     */
+    private int firstRow = -1;
+
+    /**
+     * Creates the cells of a {@link LeaderboardView}, enough to fill the view at any scroll.
+     *
+     * @param x x coordinate of the view
+     * @param y y coordinate of the view
+     * @param width width of the view
+     * @param height height of the view
+     */
+    public LeaderboardView(int x, int y, int width, int height) {
+        this(x, y, width, height, BoxCell::new);
+    }
+
+    /**
+     * Creates the cells of a {@link LeaderboardView} with a factory, enough to fill the view at any scroll.
+     *
+     * @param x x coordinate of the view
+     * @param y y coordinate of the view
+     * @param width width of the view
+     * @param height height of the view
+     * @param cells creates each cell
+     */
+    LeaderboardView(int x, int y, int width, int height, CellFactory cells) {
+        this.width = width;
+        this.height = height;
+        setLayoutX(x);
+        setLayoutY(y);
+        setClip(new Rectangle(width, height, LEADERBOARD_DISPLAY_COLOR, UNINTERACTABLE_TYPE));
+
+        int columns = width / COLUMN_PITCH + 2, rows = (height - HEADER_HEIGHT) / ROW_HEIGHT + 2;
+        headers = new Cell[columns];
+        entries = new Cell[columns][rows];
+        for (int column = 0; column < columns; column++) {
+            headers[column] = cells.create(HEADER_HEIGHT, true);
+            headers[column].setLayoutX(column * COLUMN_PITCH);
+            headerGroup.getChildren().add(headers[column]);
+            for (int row = 0; row < rows; row++) {
+                entries[column][row] = cells.create(ROW_HEIGHT, false);
+                entries[column][row].setLayoutX(column * COLUMN_PITCH);
+                entries[column][row].setLayoutY(row * ROW_HEIGHT);
+                entryGroup.getChildren().add(entries[column][row]);
+            }
+        }
+
+        // entries are clipped below the headers
+        Group entryArea = new Group(entryGroup);
+        entryArea.setLayoutY(HEADER_HEIGHT);
+        entryArea.setClip(new Rectangle(width, height - HEADER_HEIGHT, LEADERBOARD_DISPLAY_COLOR, UNINTERACTABLE_TYPE));
+        getChildren().addAll(entryArea, headerGroup);
+
+        setOnScroll(event -> scrollBy(-event.getDeltaX(), -event.getDeltaY()));
+    }
+
+    /**
+     * Shows the leaderboard, updating only the cells whose entry changed.
+     *
+     * @param leaderboard entries of each level, with the level as index
+     */
+    public void setData(Pair<String, Integer>[][] leaderboard) {
+        this.leaderboard = leaderboard;
+        maxEntries = 0;
+        for (int level = 1; level < leaderboard.length; level++)
+            maxEntries = Math.max(maxEntries, leaderboard[level].length);
+
+        firstColumn = -1;
+        scrollBy(0, 0);
+    }
+
+    /**
+     * Scrolls the view, without going past the leaderboard. The cells are only filled
+     * again when a column or row is scrolled past.
+     *
+     * @param dx distance to scroll sideways
+     * @param dy distance to scroll down
+     */
+    public void scrollBy(double dx, double dy) {
+        if (leaderboard == null) return;
+        double contentWidth = (leaderboard.length - 1) * COLUMN_PITCH - (COLUMN_PITCH - COLUMN_WIDTH);
+        double contentHeight = maxEntries * ROW_HEIGHT;
+        scrollX = Math.clamp(scrollX + dx, 0, Math.max(0, contentWidth - width));
+        scrollY = Math.clamp(scrollY + dy, 0, Math.max(0, contentHeight - (height - HEADER_HEIGHT)));
+
+        // move the cells within a column and row
+        int column = (int) (scrollX / COLUMN_PITCH), row = (int) (scrollY / ROW_HEIGHT);
+        headerGroup.setTranslateX(column * COLUMN_PITCH - scrollX);
+        entryGroup.setTranslateX(column * COLUMN_PITCH - scrollX);
+        entryGroup.setTranslateY(row * ROW_HEIGHT - scrollY);
+        if (column == firstColumn && row == firstRow) return;
+        firstColumn = column;
+        firstRow = row;
+
+        // fill the cells with the columns and rows now in view
+        for (int c = 0; c < headers.length; c++) {
+            int level = firstColumn + c + 1;
+            if (level >= leaderboard.length) {
+                headers[c].hide();
+                for (Cell entry : entries[c])
+                    entry.hide();
+                continue;
+            }
+
+            headers[c].show(null, level);
+            for (int r = 0; r < entries[c].length; r++) {
+                int placement = firstRow + r;
+                Pair<String, Integer> entry = placement < leaderboard[level].length ? leaderboard[level][placement] : null;
+                if (entry == null || entry.getValue() == Integer.MAX_VALUE) entries[c][r].hide();
+                else entries[c][r].show(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return distance scrolled sideways
+     */
+    public double getScrollX() {
+        return scrollX;
+    }
+
+    /**
+     * @return distance scrolled down
+     */
+    public double getScrollY() {
+        return scrollY;
+    }
+
+    /**
+     * Creates the cells of a {@link LeaderboardView}.
+     */
+    @FunctionalInterface
+    interface CellFactory {
+
+        /**
+         * Creates an empty cell, {@link LeaderboardView#COLUMN_WIDTH} wide.
+         *
+         * @param height height of the cell
+         * @param centered if the text is centered
+         * @return the cell
+         */
+        Cell create(int height, boolean centered);
+
+    }
+
+    /**
+     * Cell of the grid, showing a level or an entry. It keeps what it shows, so the text is
+     * only changed when that changes.
+     */
+    abstract static class Cell extends Group {
+
+        /**
+         * Name shown, or {@code null} for a level.
+         */
+        private String name;
+
+        /**
+         * Score or level shown, or {@link Integer#MIN_VALUE} if none yet.
+         */
+        private int value = Integer.MIN_VALUE;
+
+        /**
+         * Shows a level or an entry, changing the text only if it is different.
+         *
+         * @param name name of the entry, or {@code null} for a level
+         * @param value score of the entry, or the level
+         */
+        void show(String name, int value) {
+            if (!isVisible()) setVisible(true);
+            if (value == this.value && Objects.equals(name, this.name)) return;
+
+            this.name = name;
+            this.value = value;
+            setText(name == null ? "Level " + value : name + ": " + value);
+        }
+
+        /**
+         * Hides the cell.
+         */
+        void hide() {
+            if (isVisible()) setVisible(false);
+        }
+
+        /**
+         * Changes the text of the cell.
+         *
+         * @param text new text
+         */
+        protected abstract void setText(String text);
+
+    }
+
+    /**
+     * Cell showing its text on a {@link TextRectangle}.
+     */
+    private static final class BoxCell extends Cell {
+
+        /**
+         * Box the text is shown on.
+         */
+        private final TextRectangle box;
+
+        /**
+         * Creates an empty cell.
+         *
+         * @param height height of the cell
+         * @param centered if the text is centered
+         */
+        private BoxCell(int height, boolean centered) {
+            box = new TextRectangle(0, 0, COLUMN_WIDTH, height, LEADERBOARD_DISPLAY_COLOR, UNINTERACTABLE_TYPE, "", centered);
+            getChildren().addAll(box, box.getText());
+        }
+
+        @Override
+        protected void setText(String text) {
+            box.setText(text);
+        }
+
+    }
+
+}
@@ -0,0 +1,246 @@
+package com.platformer;
+
+// imports
+import static com.platformer.GameValues.PLATFORM_SIZE;
+
+/**
+ * Geometry of the platforms in a level, stored as parallel arrays of primitives. The
+ * platform at an index has its position and size in the {@code int} arrays and its kind in
+ * the {@code byte} array, so physics never has to read from the scene graph. The
+ * index of the tile drawing each platform in the {@link LevelRenderer} is kept as its view.
+ * <p>
+ * A platform may be several tiles merged by the {@link TileMesher}. The distance methods
+ * treat it as the tiles it was made from, each {@link GameValues#PLATFORM_SIZE} apart, so
+ * the player collides with a merged platform exactly like with the separate tiles.
+ */
+public class LevelGeometry {
+
+    /**
+     * Number of platforms.
+     */
+    private int size;
+
+    /**
+     * x coordinate of the left side of each platform.
+     */
+    private int[] left = new int[256];
+
+    /**
+     * y coordinate of the top side of each platform.
+     */
+    private int[] top = new int[256];
+
+    /**
+     * Width of each platform.
+     */
+    private int[] width = new int[256];
+
+    /**
+     * Height of each platform.
+     */
+    private int[] height = new int[256];
+
+    /**
+     * Kind of each platform.
+     *
+     * @see TileRegistry
+     */
+    private byte[] kind = new byte[256];
+
+    /**
+     * Index of the tile displaying each platform in the {@link LevelRenderer}.
+     */
+    private int[] views = new int[256];
+
+    /**
+     * Adds a platform.
+     *
+     * @param left x coordinate of the left side of the platform
+     * @param top y coordinate of the top side of the platform
+     * @param width width of the platform
+     * @param height height of the platform
+     * @param kind ordinal of the kind of the platform in the {@link TileRegistry}
+     * @param view index of the tile displaying the platform in the {@link LevelRenderer}
+     * @return index of the platform
+     */
+    public int add(int left, int top, int width, int height, int kind, int view) {
+        if (size == this.left.length) grow();
+
+        this.left[size] = left;
+        this.top[size] = top;
+        this.width[size] = width;
+        this.height[size] = height;
+        this.kind[size] = (byte) kind;
+        views[size] = view;
+        return size++;
+    }
+
+    /**
+     * Removes all platforms.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return number of platforms
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index index of platform
+     * @return the x coordinate of the left side of the platform
+     */
+    public int getLeft(int index) {
+        return left[index];
+    }
+
+    /**
+     * @param index index of platform
+     * @return the x coordinate of the right side of the platform
+     */
+    public int getRight(int index) {
+        return left[index] + width[index];
+    }
+
+    /**
+     * @param index index of platform
+     * @return the y coordinate of the top side of the platform
+     */
+    public int getTop(int index) {
+        return top[index];
+    }
+
+    /**
+     * @param index index of platform
+     * @return the y coordinate of the bottom side of the platform
+     */
+    public int getBottom(int index) {
+        return top[index] + height[index];
+    }
+
+    /**
+     * @param index index of platform
+     * @return ordinal of the kind of the platform in the {@link TileRegistry}
+     */
+    public int getKind(int index) {
+        return kind[index];
+    }
+
+    /**
+     * @param index index of platform
+     * @return index of the tile displaying the platform in the {@link LevelRenderer}
+     */
+    public int getView(int index) {
+        return views[index];
+    }
+
+    /**
+     * Checks if a platform touches a box. Edges count as touching.
+     *
+     * @param index index of platform
+     * @param left x coordinate of the left side of the box
+     * @param top y coordinate of the top side of the box
+     * @param right x coordinate of the right side of the box
+     * @param bottom y coordinate of the bottom side of the box
+     * @return if the platform touches the box
+     */
+    public boolean touches(int index, int left, int top, int right, int bottom) {
+        return this.left[index] <= right && this.left[index] + width[index] >= left
+                && this.top[index] <= bottom && this.top[index] + height[index] >= top;
+    }
+
+    /**
+     * Finds the distance from an x coordinate to the closest left side of a tile of a
+     * platform at or to the right of it.
+     *
+     * @param index index of platform
+     * @param x x coordinate
+     * @return distance to the side, or {@code -1} if there is none
+     */
+    public int distanceRight(int index, int x) {
+        return distanceForward(x, left[index], width[index]);
+    }
+
+    /**
+     * Finds the distance from an x coordinate to the closest right side of a tile of a
+     * platform at or to the left of it.
+     *
+     * @param index index of platform
+     * @param x x coordinate
+     * @return distance to the side, or {@code -1} if there is none
+     */
+    public int distanceLeft(int index, int x) {
+        return distanceBackward(x, left[index] + width[index], width[index]);
+    }
+
+    /**
+     * Finds the distance from a y coordinate to the closest top side of a tile of a
+     * platform at or below it.
+     *
+     * @param index index of platform
+     * @param y y coordinate
+     * @return distance to the side, or {@code -1} if there is none
+     */
+    public int distanceDown(int index, int y) {
+        return distanceForward(y, top[index], height[index]);
+    }
+
+    /**
+     * Finds the distance from a y coordinate to the closest bottom side of a tile of a
+     * platform at or above it.
+     *
+     * @param index index of platform
+     * @param y y coordinate
+     * @return distance to the side, or {@code -1} if there is none
+     */
+    public int distanceUp(int index, int y) {
+        return distanceBackward(y, top[index] + height[index], height[index]);
+    }
+
+    /**
+     * Finds the distance forward to the closest tile start at or after a coordinate.
+     * Tiles start every {@link GameValues#PLATFORM_SIZE} from the start of the platform.
+     *
+     * @param from coordinate to measure from
+     * @param start start of the platform
+     * @param length length of the platform
+     * @return distance to the tile start, or {@code -1} if there is none
+     */
+    private static int distanceForward(int from, int start, int length) {
+        if (from <= start) return start - from;
+        int tile = Math.ceilDiv(from - start, PLATFORM_SIZE);
+        return tile < Math.ceilDiv(length, PLATFORM_SIZE) ? start + tile * PLATFORM_SIZE - from : -1;
+    }
+
+    /**
+     * Finds the distance backward to the closest tile end at or before a coordinate.
+     * Tiles end every {@link GameValues#PLATFORM_SIZE} from the end of the platform.
+     *
+     * @param from coordinate to measure from
+     * @param end end of the platform
+     * @param length length of the platform
+     * @return distance to the tile end, or {@code -1} if there is none
+     */
+    private static int distanceBackward(int from, int end, int length) {
+        if (from >= end) return from - end;
+        int tile = Math.ceilDiv(end - from, PLATFORM_SIZE);
+        return tile < Math.ceilDiv(length, PLATFORM_SIZE) ? from - (end - tile * PLATFORM_SIZE) : -1;
+    }
+
+    /**
+     * Doubles the length of the arrays.
+     */
+    private void grow() {
+        int length = left.length * 2;
+        left = java.util.Arrays.copyOf(left, length);
+        top = java.util.Arrays.copyOf(top, length);
+        width = java.util.Arrays.copyOf(width, length);
+        height = java.util.Arrays.copyOf(height, length);
+        kind = java.util.Arrays.copyOf(kind, length);
+        views = java.util.Arrays.copyOf(views, length);
+    }
+
+}
@@ -0,0 +1,418 @@
+package com.platformer;
+
+/**
+ * Movement, collision, and triggers of the player in a level, without anything drawn.
+ * A level is loaded into the {@link LevelGeometry} and its indexes, and each tick moves the
+ * {@link PlayerState} from an {@link InputSnapshot}, running the {@link TileAction} of every
+ * platform touched. Nothing is allocated by a tick.
+ */
+public class LevelPhysics implements GameValues, GameKeybinds, RectangleColors, RectangleTypes {
+
+    /**
+     * State of the player.
+     */
+    private final PlayerState player;
+
+    /**
+     * Platforms of the level.
+     */
+    private final LevelGeometry platforms;
+
+    /**
+     * Kinds of tiles, with their shape, behaviour, and action when touched.
+     */
+    private final TileRegistry tiles;
+
+    /**
+     * Grid of the platforms, to find the platforms near the player.
+     */
+    private final PlatformGrid platformGrid = new PlatformGrid(PLATFORM_SIZE);
+
+    /**
+     * Trigger volumes of the level, to find the triggers the player enters and stays in.
+     */
+    private final TriggerIndex triggers = new TriggerIndex(PLATFORM_SIZE);
+
+    /**
+     * Tiles of the level by class, to skip searching where there is nothing solid.
+     */
+    private TileMap tileMap;
+
+    /**
+     * Width of the level in pixels.
+     */
+    private int levelWidth;
+
+    /**
+     * Height of the level in pixels.
+     */
+    private int levelHeight;
+
+    /**
+     * Platform of the level start point, or -1 if the level has none.
+     */
+    private int start;
+
+    /**
+     * Creates the physics of the player in the platforms.
+     *
+     * @param player state of the player
+     * @param platforms platforms of the level
+     * @param tiles kinds of tiles
+     */
+    public LevelPhysics(PlayerState player, LevelGeometry platforms, TileRegistry tiles) {
+        this.player = player;
+        this.platforms = platforms;
+        this.tiles = tiles;
+    }
+
+    /**
+     * Registers the kinds of blocks found in levels, with their colour, shape, behaviour,
+     * and action when touched. Buttons are registered by the game.
+     *
+     * @param tiles registry to add to
+     * @param checkpoint action of the start point and checkpoints
+     * @param finish action of the finish
+     * @param lava action of lava
+     */
+    public static void registerBlocks(TileRegistry tiles, TileAction checkpoint, TileAction finish, TileAction lava) {
+        // level start point and checkpoint
+        tiles.registerBlock(
+                START_TYPE, SPAWN_COLOR, TileRegistry.TRIGGER,
+                PLATFORM_SIZE / 4, PLATFORM_SIZE / 4, PLATFORM_SIZE / 2, PLATFORM_SIZE / 2,
+                checkpoint
+        );
+        tiles.registerBlock(
+                CHECKPOINT_TYPE, CHECKPOINT_COLOR, TileRegistry.TRIGGER,
+                PLATFORM_SIZE / 4, PLATFORM_SIZE / 4, PLATFORM_SIZE / 2, PLATFORM_SIZE / 2,
+                checkpoint
+        );
+
+        // level finish
+        tiles.registerBlock(
+                FINISH_TYPE, FINISH_COLOR, TileRegistry.TRIGGER,
+                PLATFORM_SIZE / 4, PLATFORM_SIZE / 4, PLATFORM_SIZE / 2, PLATFORM_SIZE / 2,
+                finish
+        );
+
+        // thick ground, thin ground, and wooden plank
+        tiles.registerBlock(
+                GROUND_TYPE, GROUND_COLOR, TileRegistry.SOLID,
+                0, 0, PLATFORM_SIZE, PLATFORM_SIZE,
+                null
+        );
+        tiles.registerBlock(
+                THIN_GROUND_TYPE, GROUND_COLOR, TileRegistry.SOLID,
+                0, 0, PLATFORM_SIZE, PLATFORM_SIZE / 5,
+                null
+        );
+        tiles.registerBlock(
+                PLANK_TYPE, PLANK_COLOR, TileRegistry.SOLID | TileRegistry.ONE_WAY,
+                0, 0, PLATFORM_SIZE, PLATFORM_SIZE / 5,
+                null
+        );
+
+        // lava
+        tiles.registerBlock(
+                LAVA_TYPE, LAVA_COLOR, TileRegistry.SOLID | TileRegistry.HAZARD,
+                0, PLATFORM_SIZE * 4 / 5, PLATFORM_SIZE, PLATFORM_SIZE / 5,
+                lava
+        );
+    }
+
+    /**
+     * Loads the platforms of a level, and builds the indexes used by each tick.
+     * Ground, planks, and lava are merged into boxes by the {@link TileMesher}, and
+     * ground that cannot be touched is only drawn.
+     *
+     * @param level rows of the level
+     * @param placer draws each box of the level
+     */
+    public void load(String[] level, TilePlacer placer) {
+        platforms.clear();
+        start = -1;
+        levelWidth = level[0].length() * PLATFORM_SIZE;
+        levelHeight = level.length * PLATFORM_SIZE;
+        tileMap = new TileMap(level, tiles);
+
+        // merge ground, planks, and lava into boxes
+        TileMesher mesher = new TileMesher(level);
+        for (int box = 0; box < mesher.size(); box++) {
+            int x = mesher.getColumn(box) * PLATFORM_SIZE;
+            int y = mesher.getRow(box) * PLATFORM_SIZE;
+            int columns = mesher.getColumns(box);
+            int rows = mesher.getRows(box);
+
+            // ground that cannot be touched is only drawn
+            if (mesher.isInterior(box))
+                placer.place(tiles.kindOf(GROUND_TYPE), GROUND_TYPE, x, y, columns * PLATFORM_SIZE, rows * PLATFORM_SIZE);
+            else
+                loadBlock(mesher.getType(box), x, y, columns, rows, placer);
+        }
+
+        // load the other blocks one by one
+        for (int i = 0; i < level.length; i++)
+            for (int j = 0; j < level[i].length(); j++)
+                if (!TileMesher.isMeshed(level[i].charAt(j)))
+                    loadBlock(level[i].charAt(j), j * PLATFORM_SIZE, i * PLATFORM_SIZE, 1, 1, placer);
+        platformGrid.build(platforms, levelWidth, levelHeight);
+        triggers.build(platforms, tiles, levelWidth, levelHeight);
+    }
+
+    /**
+     * Takes in a type of block and the coordinates, draws the block at the coordinates,
+     * and adds it to the platforms. The shape comes from the {@link LevelPhysics#tiles} registry.
+     *
+     * @param type type of block
+     * @param x x coordinate
+     * @param y y coordinate
+     * @param columns number of tiles covered in the x direction
+     * @param rows number of tiles covered in the y direction
+     * @param placer draws the block
+     */
+    private void loadBlock(char type, int x, int y, int columns, int rows, TilePlacer placer) {
+        // empty space
+        if (type == ' ') return;
+
+        int kind = tiles.kindOf(type);
+        if (kind < 0)
+            throw new RuntimeException("Illegal blocks in code: " + type);
+
+        // buttons are centred on their tile, and blocks are placed in their tiles
+        int[] shape = tiles.getShape(kind);
+        int left, top, width, height;
+        if (tiles.is(kind, TileRegistry.BUTTON)) {
+            left = x - (shape[2] - PLATFORM_SIZE) / 2;
+            top = y - 10;
+            width = shape[2];
+            height = PLATFORM_SIZE;
+        }
+        else {
+            left = x + shape[0];
+            top = y + shape[1];
+            width = columns * shape[2];
+            height = rows * shape[3];
+        }
+        int platform = platforms.add(left, top, width, height, kind, placer.place(kind, type, left, top, width, height));
+
+        // level start point
+        if (type == START_TYPE)
+            start = platform;
+    }
+
+    /**
+     * @return width of the level in pixels
+     */
+    public int getLevelWidth() {
+        return levelWidth;
+    }
+
+    /**
+     * @return height of the level in pixels
+     */
+    public int getLevelHeight() {
+        return levelHeight;
+    }
+
+    /**
+     * @return platform of the level start point, or -1 if the level has none
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Runs one tick. Checks for key press and updates things such as gravity,
+     * and block collision and interaction.
+     *
+     * @param keys keys at the start of the tick
+     */
+    public void tick(InputSnapshot keys) {
+        // detect key press
+        if (keys.isDown(JUMP_KEY) && player.getTop() >= 5)
+            jumpPlayer();
+        if (keys.isDown(LEFT_KEY) && player.getLeft() >= 5)
+            movePlayerX(-5);
+        if (keys.isDown(RIGHT_KEY) && player.getRight() <= levelWidth - 5)
+            movePlayerX(5);
+        if (keys.isDown(FALL_KEY))
+            fallThroughPlank();
+
+        // gravity
+        if (player.getVelocityY() < TERMINAL_VELOCITY)
+            player.setVelocityY(player.getVelocityY() + 1);
+        movePlayerY(player.getVelocityY());
+
+        // check collision and interactions
+        checkBlockType(keys);
+    }
+
+    /**
+     * Checks player interactions with the trigger volumes in {@link LevelPhysics#triggers}.
+     * Triggers act once when entered, while buttons and hazards act on every tick the player
+     * stays inside them. Carry out different actions based on each, looked up in the
+     * {@link LevelPhysics#tiles} registry.
+     *
+     * @param keys keys at the start of the tick
+     */
+    private void checkBlockType(InputSnapshot keys) {
+        triggers.update(player.getLeft(), player.getTop(), player.getRight(), player.getBottom());
+
+        // checkpoints and finish, which never reload the level
+        for (int i = 0; i < triggers.entered(); i++) {
+            int platform = triggers.getEntered(i);
+            int kind = platforms.getKind(platform);
+            if (tiles.is(kind, TileRegistry.TRIGGER))
+                tiles.getAction(kind).interact(platform);
+        }
+
+        // buttons and hazards
+        for (int i = 0; i < triggers.occupied(); i++) {
+            int platform = triggers.getOccupied(i);
+            int kind = platforms.getKind(platform);
+            if (tiles.is(kind, TileRegistry.TRIGGER)) continue;
+
+            // buttons only act once when interacted with
+            if (tiles.is(kind, TileRegistry.BUTTON) && !keys.pressedThisTick(INTERACT_KEY)) continue;
+
+            // return if any interaction, the level may be about to change
+            if (tiles.getAction(kind).interact(platform)) return;
+        }
+    }
+
+    /**
+     * Allows the player to jump once. Do not jump if in the air or already jumped.
+     */
+    private void jumpPlayer() {
+        if (!player.canJump()) return; // exit if cannot jump
+
+        int left = player.getLeft(), right = player.getRight();
+        int top = player.getTop(), bottom = player.getBottom();
+
+        int nearby = platformGrid.query(left, top, right, bottom);
+        for (int p = 0; p < nearby; p++) { // platform
+            int platform = platformGrid.get(p);
+            boolean touchingPlatform = platforms.touches(platform, left, top, right, bottom);
+            boolean underPlatform = top == platforms.getBottom(platform);
+            if (!touchingPlatform || underPlatform) continue; // exit if cannot jump
+
+            // player jumps
+            player.setVelocityY(-JUMP_HEIGHT);
+            player.setCanJump(false);
+            return;
+        }
+    }
+
+    /**
+     * Moves the player in the x direction. If the player hits a wall stop moving.
+     * The closest wall in the direction of movement is found in one query, and the
+     * player is moved up to it in a single step.
+     *
+     * @param x Steps to move
+     */
+    private void movePlayerX(int x) {
+        boolean movingRight = x > 0;
+        int distance = Math.abs(x);
+        int left = player.getLeft(), right = player.getRight();
+        int top = player.getTop(), bottom = player.getBottom();
+
+        // skip search if there are no solid tiles in the path of the player
+        int fromX = movingRight ? right : left - distance;
+        int toX = movingRight ? right + distance : left;
+        int nearby = tileMap.anyInBox(TileMap.SOLID, fromX, top, toX, bottom)
+                ? platformGrid.query(fromX, top, toX, bottom)
+                : 0;
+        for (int p = 0; p < nearby; p++) { // platform
+            int platform = platformGrid.get(p);
+
+            // don't collide with no collision blocks
+            if (!tiles.is(platforms.getKind(platform), TileRegistry.SOLID)) continue;
+
+            // platforms the player is standing on or not level with cannot block it
+            if (platforms.getTop(platform) >= bottom || platforms.getBottom(platform) < top) continue;
+
+            // if a wall is in the way stop at it
+            int gap = movingRight ? platforms.distanceRight(platform, right) : platforms.distanceLeft(platform, left);
+            if (gap >= 0 && gap < distance) distance = gap;
+        }
+
+        // update player x position
+        player.moveX(movingRight ? distance : -distance);
+    }
+
+    /**
+     * Moves the player in the y direction. If the player falls onto the ground or hits roof stop moving.
+     * The closest floor or roof in the direction of movement is found in one query, and the
+     * player is moved up to it in a single step.
+     *
+     * @param y Steps to move
+     */
+    private void movePlayerY(int y) {
+        boolean movingDown = y > 0;
+        int distance = Math.abs(y);
+        boolean blocked = false;
+        int left = player.getLeft(), right = player.getRight();
+        int top = player.getTop(), bottom = player.getBottom();
+
+        // skip search if there are no solid tiles in the path of the player
+        int fromY = movingDown ? bottom : top - distance;
+        int toY = movingDown ? bottom + distance : top;
+        int nearby = tileMap.anyInBox(TileMap.SOLID, left, fromY, right, toY)
+                ? platformGrid.query(left, fromY, right, toY)
+                : 0;
+        for (int p = 0; p < nearby; p++) { // platform
+            int platform = platformGrid.get(p);
+
+            // don't collide with no collision blocks
+            if (!tiles.is(platforms.getKind(platform), TileRegistry.SOLID)) continue;
+
+            // platforms beside the player cannot block it
+            if (platforms.getLeft(platform) >= right || platforms.getRight(platform) <= left) continue;
+
+            // planks can be jumped through from below
+            if (!movingDown && tiles.is(platforms.getKind(platform), TileRegistry.ONE_WAY)) continue;
+
+            // if a floor or roof is in the way stop at it
+            int gap = movingDown ? platforms.distanceDown(platform, bottom) : platforms.distanceUp(platform, top);
+            if (gap >= 0 && gap < distance) {
+                distance = gap;
+                blocked = true;
+            }
+        }
+
+        // update player y position
+        player.moveY(movingDown ? distance : -distance);
+        if (!blocked) return;
+
+        // lands on ground
+        if (movingDown)
+            player.setCanJump(true);
+
+        // hits bottom of platform
+        else
+            player.setVelocityY(0); // reset y-velocity
+    }
+
+    /**
+     * Makes the player fall through a plank. If the block is not a plank do not fall through.
+     */
+    private void fallThroughPlank() {
+        int left = player.getLeft(), right = player.getRight();
+        int top = player.getTop(), bottom = player.getBottom();
+
+        int nearby = platformGrid.query(left, top, right, bottom);
+        for (int p = 0; p < nearby; p++) { // platform
+            int platform = platformGrid.get(p);
+            boolean touchingPlatform = platforms.touches(platform, left, top, right, bottom);
+            boolean onPlatform = bottom == platforms.getTop(platform);
+            boolean onSide = right == platforms.getLeft(platform) || left == platforms.getRight(platform);
+            boolean isPlank = tiles.is(platforms.getKind(platform), TileRegistry.ONE_WAY);
+            if (!touchingPlatform || !onPlatform || onSide || !isPlank) continue; // exit if not plank
+
+            // fall through plank
+            player.moveY(1);
+            return;
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.platformer;
+
+// imports
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+
+/**
+ * Backend that draws the static tiles of a level. Tiles are added while a level is loaded,
+ * and the backend draws them once {@link LevelRenderer#finish(int, int)} is called. Each tile
+ * is given an index, so its colour can be changed later. The player and pop-ups are not tiles,
+ * and stay as nodes in the scene graph.
+ * <p>
+ * The backend is chosen with {@code -Dplatformer.renderer}, see {@link GameValues#RENDERER}.
+ */
+public interface LevelRenderer {
+
+    /**
+     * @return the node displaying the tiles, added to the game layer below the player
+     */
+    Node getNode();
+
+    /**
+     * Removes all tiles, before a level is loaded. A level always adds the same tiles
+     * in the same order, so backends may reuse what they drew for it before.
+     *
+     * @param level level being loaded
+     */
+    void clear(int level);
+
+    /**
+     * Adds a tile drawn as a coloured rectangle.
+     *
+     * @param x x coordinate of the tile
+     * @param y y coordinate of the tile
+     * @param width width of the tile
+     * @param height height of the tile
+     * @param color colour of the tile
+     * @param type type of the tile
+     * @return index of the tile
+     */
+    int fillTile(int x, int y, int width, int height, Color color, char type);
+
+    /**
+     * Adds a tile drawn as a coloured rectangle with centred text.
+     *
+     * @param x x coordinate of the tile
+     * @param y y coordinate of the tile
+     * @param width width of the tile
+     * @param height height of the tile
+     * @param color colour of the tile
+     * @param type type of the tile
+     * @param label text on the tile
+     * @return index of the tile
+     */
+    int fillButton(int x, int y, int width, int height, Color color, char type, String label);
+
+    /**
+     * Draws the tiles added, once every tile of the level is added.
+     *
+     * @param width width of the level
+     * @param height height of the level
+     */
+    void finish(int width, int height);
+
+    /**
+     * Changes the colour of a tile.
+     *
+     * @param tile index of the tile
+     * @param color new colour
+     */
+    void setColor(int tile, Color color);
+
+    /**
+     * Moves the viewport, so the backend can keep only what is near it in the scene graph.
+     * Called each frame after the camera scrolls.
+     *
+     * @param left x coordinate of the left side of the viewport in the level
+     * @param top y coordinate of the top side of the viewport in the level
+     * @param width width of the viewport
+     * @param height height of the viewport
+     */
+    void setViewport(double left, double top, double width, double height);
+
+}
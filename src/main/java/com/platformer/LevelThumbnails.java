@@ -0,0 +1,242 @@
+package com.platformer;
+
+// imports
+import javafx.application.Platform;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Thumbnails of the levels, shown above their buttons on the level selection page. Each
+ * thumbnail is drawn from {@link GameLevels#PAGES} on a background thread at startup, and
+ * saved in a folder of the {@link GameValues#DATA_FOLDER} under the SHA-256 hash of the level and
+ * its colours, so later launches read it back instead, and only a changed level is drawn again.
+ * Until a thumbnail is ready its view shows a placeholder, so the page never waits for it.
+ */
+public class LevelThumbnails {
+
+    /**
+     * Width of a thumbnail.
+     */
+    public static final int WIDTH = 90;
+
+    /**
+     * Height of a thumbnail.
+     */
+    public static final int HEIGHT = 48;
+
+    /**
+     * Colour of the placeholder and of the empty space of the levels.
+     */
+    private static final Color EMPTY_COLOR = Color.gray(0.85);
+
+    /**
+     * Folder the thumbnails are saved in.
+     */
+    private final Path folder;
+
+    /**
+     * View of the thumbnail of each level, showing the placeholder until it is ready.
+     */
+    private final ImageView[] views;
+
+    /**
+     * Creates the views of the thumbnails, all showing the placeholder.
+     *
+     * @param folder folder the thumbnails are saved in
+     * @param levels number of pages, the views of the levels among them are used
+     */
+    public LevelThumbnails(Path folder, int levels) {
+        this.folder = folder;
+        views = new ImageView[levels];
+
+        WritableImage placeholder = new WritableImage(WIDTH, HEIGHT);
+        for (int y = 0; y < HEIGHT; y++)
+            for (int x = 0; x < WIDTH; x++)
+                placeholder.getPixelWriter().setColor(x, y, EMPTY_COLOR);
+        for (int level = 0; level < levels; level++) {
+            views[level] = new ImageView(placeholder);
+            views[level].setMouseTransparent(true);
+        }
+    }
+
+    /**
+     * @param level level of the thumbnail
+     * @return view of the thumbnail, showing the placeholder until the thumbnail is ready
+     */
+    public ImageView getView(int level) {
+        return views[level];
+    }
+
+    /**
+     * Starts reading or drawing the thumbnails of some levels on a background thread.
+     * The colours of the tiles are read now, so the thread never reads the registry.
+     *
+     * @param pages rows of every page
+     * @param first first level to draw
+     * @param last last level to draw
+     * @param tiles registry of the kinds of tiles
+     */
+    public void start(String[][] pages, int first, int last, TileRegistry tiles) {
+        int empty = TileSprites.argb(EMPTY_COLOR);
+        int[] palette = new int[128];
+        Arrays.fill(palette, empty);
+        for (int kind = 0; kind < tiles.size(); kind++)
+            palette[tiles.getSymbol(kind)] = TileSprites.argb(tiles.getColor(kind));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "thumbnails");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        for (int level = first; level <= last; level++) {
+            int page = level;
+            executor.submit(() -> load(page, pages[page], palette));
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Reads or draws the thumbnail of a level, then shows it on the JavaFX Application Thread.
+     *
+     * @param level level of the thumbnail
+     * @param rows rows of the level
+     * @param palette colour of each symbol, as ARGB
+     */
+    private void load(int level, String[] rows, int[] palette) {
+        int[] ready = pixels(folder, rows, palette);
+        Platform.runLater(() -> {
+            WritableImage image = new WritableImage(WIDTH, HEIGHT);
+            image.getPixelWriter().setPixels(0, 0, WIDTH, HEIGHT, PixelFormat.getIntArgbInstance(), ready, 0, WIDTH);
+            views[level].setImage(image);
+        });
+    }
+
+    /**
+     * Reads the thumbnail of a level, or draws and saves it if it is not saved yet.
+     *
+     * @param folder folder the thumbnails are saved in
+     * @param rows rows of the level
+     * @param palette colour of each symbol, as ARGB
+     * @return pixels of the thumbnail, as ARGB
+     */
+    static int[] pixels(Path folder, String[] rows, int[] palette) {
+        Path file = folder.resolve(hash(rows, palette) + ".thumb");
+        int[] pixels = read(file);
+        if (pixels == null) {
+            pixels = draw(rows, palette);
+            write(file, pixels);
+        }
+        return pixels;
+    }
+
+    /**
+     * Draws a level scaled down to fit the thumbnail, keeping its shape, with one sample
+     * of the tiles per pixel. Space around the level is left transparent.
+     *
+     * @param rows rows of the level
+     * @param palette colour of each symbol, as ARGB
+     * @return pixels of the thumbnail, as ARGB
+     */
+    static int[] draw(String[] rows, int[] palette) {
+        int columns = rows[0].length();
+        double scale = Math.min((double) WIDTH / columns, (double) HEIGHT / rows.length);
+        int left = (int) ((WIDTH - columns * scale) / 2), top = (int) ((HEIGHT - rows.length * scale) / 2);
+
+        int[] pixels = new int[WIDTH * HEIGHT];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int column = (int) ((x - left) / scale), row = (int) ((y - top) / scale);
+                if (x < left || y < top || column >= columns || row >= rows.length) continue;
+
+                char symbol = rows[row].charAt(column);
+                pixels[y * WIDTH + x] = symbol < palette.length ? palette[symbol] : 0;
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * @param rows rows of a level
+     * @param palette colour of each symbol, as ARGB
+     * @return SHA-256 hash of the level, its colours, and the size of the thumbnail, in hex
+     */
+    static String hash(String[] rows, int[] palette) {
+        MessageDigest digest;
+        try { digest = MessageDigest.getInstance("SHA-256"); }
+        catch (NoSuchAlgorithmException e) { throw new RuntimeException("SHA-256 is always available", e); }
+
+        // colours packed big-endian into one buffer
+        ByteBuffer colors = ByteBuffer.allocate(palette.length * Integer.BYTES);
+        colors.asIntBuffer().put(palette);
+
+        digest.update((WIDTH + "x" + HEIGHT + "\n").getBytes(StandardCharsets.UTF_8));
+        digest.update(colors.array());
+        for (String row : rows) {
+            digest.update(row.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Reads a saved thumbnail.
+     *
+     * @param file file of the thumbnail
+     * @return pixels of the thumbnail, or {@code null} if it is missing or cannot be read
+     */
+    static int[] read(Path file) {
+        if (!Files.isRegularFile(file)) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != WIDTH || in.readInt() != HEIGHT) return null;
+            int[] pixels = new int[WIDTH * HEIGHT];
+            for (int i = 0; i < pixels.length; i++)
+                pixels[i] = in.readInt();
+            return pixels;
+        }
+        catch (IOException e) { return null; } // drawn again instead
+    }
+
+    /**
+     * Saves a thumbnail. The file is written under another name and then moved, so a
+     * thumbnail is never read half written.
+     *
+     * @param file file of the thumbnail
+     * @param pixels pixels of the thumbnail
+     */
+    static void write(Path file, int[] pixels) {
+        Path folder = file.toAbsolutePath().getParent();
+        Path temporary = null;
+        try {
+            Files.createDirectories(folder);
+            temporary = Files.createTempFile(folder, "thumb", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(WIDTH);
+                out.writeInt(HEIGHT);
+                for (int pixel : pixels)
+                    out.writeInt(pixel);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) { // drawn again at the next launch
+            try { if (temporary != null) Files.deleteIfExists(temporary); }
+            catch (IOException ignored) {}
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.platformer;
+
+// imports
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+import java.util.Arrays;
+
+/**
+ * {@link LevelRenderer} that displays every tile as its own {@link Rectangle} node.
+ * Selected with {@code -Dplatformer.renderer=nodes}, and kept to compare the other backends against.
+ * The nodes are only created for the tiles near the camera by a {@link CullingLayer}, and dropped
+ * when the camera moves away, so only the tiles that can be seen are in the scene graph.
+ */
+public class NodeLevelRenderer implements LevelRenderer {
+
+    /**
+     * Layer holding the nodes of the tiles near the camera.
+     */
+    private final CullingLayer layer = new CullingLayer(this::createNode);
+
+    /**
+     * Number of tiles.
+     */
+    private int size;
+
+    /**
+     * Colour of each tile.
+     */
+    private Color[] colors = new Color[256];
+
+    /**
+     * Type of each tile.
+     */
+    private char[] types = new char[256];
+
+    /**
+     * Text on each tile, or {@code null} if none.
+     */
+    private String[] labels = new String[256];
+
+    /**
+     * Position and size of each tile, as x, y, width, and height.
+     */
+    private int[] boxes = new int[256 * 4];
+
+    @Override
+    public Node getNode() {
+        return layer;
+    }
+
+    @Override
+    public void clear(int level) {
+        layer.clear();
+        Arrays.fill(colors, 0, size, null);
+        Arrays.fill(labels, 0, size, null);
+        size = 0;
+    }
+
+    @Override
+    public int fillTile(int x, int y, int width, int height, Color color, char type) {
+        return add(x, y, width, height, color, type, null);
+    }
+
+    @Override
+    public int fillButton(int x, int y, int width, int height, Color color, char type, String label) {
+        return add(x, y, width, height, color, type, label);
+    }
+
+    @Override
+    public void finish(int width, int height) {
+        layer.finish(width, height);
+    }
+
+    @Override
+    public void setColor(int tile, Color color) {
+        colors[tile] = color;
+
+        // only tiles near the camera have a node
+        Node node = layer.getNode(tile);
+        if (node instanceof Group group) node = group.getChildren().getFirst();
+        if (node != null) ((Rectangle) node).setFill(color);
+    }
+
+    @Override
+    public void setViewport(double left, double top, double width, double height) {
+        layer.setViewport(left, top, width, height);
+    }
+
+    /**
+     * Adds a tile to the end of the arrays, and to the {@link CullingLayer}.
+     *
+     * @param x x coordinate of the tile
+     * @param y y coordinate of the tile
+     * @param width width of the tile
+     * @param height height of the tile
+     * @param color colour of the tile
+     * @param type type of the tile
+     * @param label text on the tile, or {@code null} if none
+     * @return index of the tile
+     */
+    private int add(int x, int y, int width, int height, Color color, char type, String label) {
+        if (size == colors.length) grow();
+
+        colors[size] = color;
+        types[size] = type;
+        labels[size] = label;
+        boxes[size * 4] = x;
+        boxes[size * 4 + 1] = y;
+        boxes[size * 4 + 2] = width;
+        boxes[size * 4 + 3] = height;
+        layer.add(x, y, width, height);
+        return size++;
+    }
+
+    /**
+     * Creates the node of a tile, when it comes near the camera. A button is a
+     * group of its {@link TextRectangle} and its text.
+     *
+     * @param tile index of the tile
+     * @return node of the tile
+     */
+    private Node createNode(int tile) {
+        int x = boxes[tile * 4], y = boxes[tile * 4 + 1], width = boxes[tile * 4 + 2], height = boxes[tile * 4 + 3];
+        if (labels[tile] == null) return new Rectangle(x, y, width, height, colors[tile], types[tile]);
+
+        TextRectangle textRectangle = new TextRectangle(x, y, width, height, colors[tile], types[tile], labels[tile], true);
+        return new Group(textRectangle, textRectangle.getText());
+    }
+
+    /**
+     * Doubles the length of the arrays.
+     */
+    private void grow() {
+        int length = colors.length * 2;
+        colors = Arrays.copyOf(colors, length);
+        types = Arrays.copyOf(types, length);
+        labels = Arrays.copyOf(labels, length);
+        boxes = Arrays.copyOf(boxes, length * 4);
+    }
+
+}
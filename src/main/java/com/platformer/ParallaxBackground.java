@@ -0,0 +1,145 @@
+package com.platformer;
+
+// imports
+import javafx.scene.CacheHint;
+import javafx.scene.Group;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Background behind the level, made of a flat colour and layers that scroll at a fraction of
+ * the camera, so the far layers seem to move slower. Each layer is one image that tiles in both
+ * directions, drawn once, and shown by just enough {@link ImageView}s to cover the view, cached
+ * together as one bitmap. Only the offset of each layer, wrapped to the size of its image,
+ * changes as the camera moves, so the background costs a few image draws a frame however large
+ * the level is.
+ */
+public final class ParallaxBackground extends Group {
+
+    /**
+     * Width of the view.
+     */
+    private final int width;
+
+    /**
+     * Height of the view.
+     */
+    private final int height;
+
+    /**
+     * Group of the image views of each layer.
+     */
+    private Group[] layers = new Group[0];
+
+    /**
+     * Fraction of the camera movement each layer moves by.
+     */
+    private double[] fractions = new double[0];
+
+    /**
+     * Width and height of the image of each layer.
+     */
+    private int[] sizes = new int[0];
+
+    /**
+     * Creates a {@link ParallaxBackground} with only a flat colour.
+     *
+     * @param width width of the view
+     * @param height height of the view
+     * @param color colour behind every layer
+     */
+    public ParallaxBackground(int width, int height, Color color) {
+        this.width = width;
+        this.height = height;
+        getChildren().add(new Rectangle(width, height, color, RectangleTypes.UNINTERACTABLE_TYPE));
+        setMouseTransparent(true);
+    }
+
+    /**
+     * Adds a layer in front of the others.
+     *
+     * @param tile square image tiling in both directions
+     * @param fraction fraction of the camera movement the layer moves by
+     */
+    public void addLayer(Image tile, double fraction) {
+        int size = (int) tile.getWidth();
+
+        // enough views to cover the view at any offset
+        Group layer = new Group();
+        for (int y = 0; y < height + size; y += size) {
+            for (int x = 0; x < width + size; x += size) {
+                ImageView view = new ImageView(tile);
+                view.setLayoutX(x);
+                view.setLayoutY(y);
+                layer.getChildren().add(view);
+            }
+        }
+        layer.setCache(true);
+        layer.setCacheHint(CacheHint.SPEED);
+        getChildren().add(layer);
+
+        layers = Arrays.copyOf(layers, layers.length + 1);
+        fractions = Arrays.copyOf(fractions, fractions.length + 1);
+        sizes = Arrays.copyOf(sizes, sizes.length + 1);
+        layers[layers.length - 1] = layer;
+        fractions[fractions.length - 1] = fraction;
+        sizes[sizes.length - 1] = size;
+    }
+
+    /**
+     * Moves the layers to match the camera, once per frame. A layer is only written when its offset changes.
+     *
+     * @param left x coordinate of the left side of the camera in the level
+     * @param top y coordinate of the top side of the camera in the level
+     */
+    public void scroll(double left, double top) {
+        for (int i = 0; i < layers.length; i++) {
+            double x = -wrap(left * fractions[i], sizes[i]);
+            double y = -wrap(top * fractions[i], sizes[i]);
+            if (layers[i].getTranslateX() != x) layers[i].setTranslateX(x);
+            if (layers[i].getTranslateY() != y) layers[i].setTranslateY(y);
+        }
+    }
+
+    /**
+     * Draws an image of scattered dots that tiles in both directions. The same seed always
+     * gives the same image.
+     *
+     * @param size width and height of the image
+     * @param count number of dots
+     * @param radius radius of the dots
+     * @param color colour of the dots
+     * @param seed seed of the positions of the dots
+     * @return image of the dots
+     */
+    public static Image dots(int size, int count, int radius, Color color, long seed) {
+        WritableImage image = new WritableImage(size, size);
+        PixelWriter writer = image.getPixelWriter();
+        Random random = new Random(seed);
+
+        for (int dot = 0; dot < count; dot++) {
+            int centreX = random.nextInt(size), centreY = random.nextInt(size);
+            for (int dy = -radius; dy <= radius; dy++)
+                for (int dx = -radius; dx <= radius; dx++)
+                    if (dx * dx + dy * dy <= radius * radius)
+                        writer.setColor(Math.floorMod(centreX + dx, size), Math.floorMod(centreY + dy, size), color);
+        }
+        return image;
+    }
+
+    /**
+     * @param offset offset of a layer
+     * @param size size of the image of the layer
+     * @return the offset wrapped to the image, from {@code 0} to {@code size}
+     */
+    private static double wrap(double offset, int size) {
+        double wrapped = offset % size;
+        return wrapped < 0 ? wrapped + size : wrapped;
+    }
+
+}
@@ -0,0 +1,302 @@
+package com.platformer;
+
+// imports
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import java.util.Arrays;
+
+/**
+ * Particles drawn over the level for bursts like deaths and checkpoints. Every particle is
+ * stored in preallocated arrays of primitives with a fixed capacity, and a dead particle is
+ * removed by moving the last particle into its place, so spawning and removing never allocate.
+ * The particles are moved in one loop and drawn onto one {@link Canvas} the size of the view,
+ * with the fill colour only changed between particles of different colours.
+ * <p>
+ * Bursts are requested by the simulation thread, and kept in a small ring until the JavaFX
+ * Application Thread spawns them at the next frame. While there are no particles, frames
+ * cost nothing.
+ */
+public class ParticleSystem {
+
+    /**
+     * Most particles alive at once. Bursts past it spawn fewer particles.
+     */
+    private static final int CAPACITY = 8192;
+
+    /**
+     * Most bursts waiting to be spawned. Bursts past it are dropped. A power of two, so the
+     * slot of a burst stays in the ring once the counters overflow.
+     */
+    private static final int REQUESTS = 64;
+
+    /**
+     * Size of a particle.
+     */
+    private static final double SIZE = 3;
+
+    /**
+     * Downwards acceleration of the particles, in pixels per second squared.
+     */
+    private static final float GRAVITY = 900;
+
+    /**
+     * Longest time a frame can move the particles by, in seconds.
+     */
+    private static final float MAX_STEP = 0.05f;
+
+    /**
+     * Canvas the particles are drawn on, covering the view.
+     */
+    private final Canvas canvas;
+
+    /**
+     * Colours of the particles, by index.
+     */
+    private Color[] palette = new Color[0];
+
+    /**
+     * Number of particles alive.
+     */
+    private int size;
+
+    /**
+     * x coordinate of each particle in the level.
+     */
+    private final float[] x = new float[CAPACITY];
+
+    /**
+     * y coordinate of each particle in the level.
+     */
+    private final float[] y = new float[CAPACITY];
+
+    /**
+     * Velocity of each particle in the x direction, in pixels per second.
+     */
+    private final float[] velocityX = new float[CAPACITY];
+
+    /**
+     * Velocity of each particle in the y direction, in pixels per second.
+     */
+    private final float[] velocityY = new float[CAPACITY];
+
+    /**
+     * Seconds left for each particle.
+     */
+    private final float[] life = new float[CAPACITY];
+
+    /**
+     * Index of the colour of each particle in the {@link ParticleSystem#palette}.
+     */
+    private final byte[] color = new byte[CAPACITY];
+
+    /**
+     * x coordinate of each burst waiting.
+     */
+    private final int[] requestX = new int[REQUESTS];
+
+    /**
+     * y coordinate of each burst waiting.
+     */
+    private final int[] requestY = new int[REQUESTS];
+
+    /**
+     * Number of particles of each burst waiting.
+     */
+    private final int[] requestCount = new int[REQUESTS];
+
+    /**
+     * Colour of each burst waiting.
+     */
+    private final byte[] requestColor = new byte[REQUESTS];
+
+    /**
+     * Number of bursts ever requested, written by the simulation thread.
+     */
+    private volatile int requested;
+
+    /**
+     * Number of bursts ever spawned, written by the JavaFX Application Thread.
+     */
+    private volatile int spawned;
+
+    /**
+     * State of the random numbers spawning particles.
+     */
+    private long seed = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Time of the last update, in nanoseconds, or {@code 0} if there were no particles.
+     */
+    private long lastTime;
+
+    /**
+     * If the canvas has particles drawn on it.
+     */
+    private boolean drawn;
+
+    /**
+     * Creates an empty {@link ParticleSystem}.
+     *
+     * @param width width of the view
+     * @param height height of the view
+     */
+    public ParticleSystem(int width, int height) {
+        canvas = new Canvas(width, height);
+        canvas.setMouseTransparent(true);
+    }
+
+    /**
+     * @return the node displaying the particles, added above the game layer
+     */
+    public Node getNode() {
+        return canvas;
+    }
+
+    /**
+     * Adds a colour particles can have. Called before any burst.
+     *
+     * @param color colour of particles
+     * @return index of the colour
+     */
+    public int addColor(Color color) {
+        palette = Arrays.copyOf(palette, palette.length + 1);
+        palette[palette.length - 1] = color;
+        return palette.length - 1;
+    }
+
+    /**
+     * Requests a burst of particles, spawned at the next frame. Only called from the
+     * simulation thread, and never allocates.
+     *
+     * @param x x coordinate of the burst in the level
+     * @param y y coordinate of the burst in the level
+     * @param count number of particles
+     * @param color index of the colour of the particles
+     */
+    public void burst(int x, int y, int count, int color) {
+        int request = requested;
+        if (request - spawned == REQUESTS) return;
+
+        int slot = request & (REQUESTS - 1);
+        requestX[slot] = x;
+        requestY[slot] = y;
+        requestCount[slot] = count;
+        requestColor[slot] = (byte) color;
+        requested = request + 1;
+    }
+
+    /**
+     * Removes every particle and burst waiting, before a level is loaded.
+     */
+    public void clear() {
+        drawn |= size > 0;
+        size = 0;
+        spawned = requested;
+    }
+
+    /**
+     * @return number of particles alive
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return if there are no particles, and no bursts waiting
+     */
+    public boolean isEmpty() {
+        return size == 0 && spawned == requested && !drawn;
+    }
+
+    /**
+     * Spawns the bursts waiting, moves the particles, and draws them, once per frame.
+     *
+     * @param now time of the frame, in nanoseconds
+     * @param left x coordinate of the left side of the view in the level
+     * @param top y coordinate of the top side of the view in the level
+     */
+    public void update(long now, double left, double top) {
+        spawnRequested();
+        if (size == 0 && !drawn) {
+            lastTime = 0;
+            return;
+        }
+
+        float step = lastTime == 0 ? 0 : Math.min(MAX_STEP, (now - lastTime) / 1e9f);
+        lastTime = now;
+
+        // move the particles, removing the dead ones
+        for (int i = 0; i < size; i++) {
+            life[i] -= step;
+            if (life[i] <= 0) {
+                remove(i--);
+                continue;
+            }
+            velocityY[i] += GRAVITY * step;
+            x[i] += velocityX[i] * step;
+            y[i] += velocityY[i] * step;
+        }
+
+        // draw the particles, changing colour only when needed
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        int fill = -1;
+        for (int i = 0; i < size; i++) {
+            if (color[i] != fill) {
+                fill = color[i];
+                gc.setFill(palette[fill]);
+            }
+            gc.fillRect(x[i] - left, y[i] - top, SIZE, SIZE);
+        }
+        drawn = size > 0;
+    }
+
+    /**
+     * Spawns the bursts requested since the last frame.
+     */
+    private void spawnRequested() {
+        int request = spawned, end = requested;
+        for (; request != end; request++) {
+            int slot = request & (REQUESTS - 1);
+            for (int i = 0; i < requestCount[slot] && size < CAPACITY; i++) {
+                double angle = random() * 2 * Math.PI, speed = 60 + random() * 240;
+                x[size] = requestX[slot];
+                y[size] = requestY[slot];
+                velocityX[size] = (float) (Math.cos(angle) * speed);
+                velocityY[size] = (float) (Math.sin(angle) * speed) - 150;
+                life[size] = (float) (0.4 + random() * 0.6);
+                color[size] = requestColor[slot];
+                size++;
+            }
+        }
+        spawned = end;
+    }
+
+    /**
+     * Removes a particle, moving the last particle into its place.
+     *
+     * @param i index of the particle
+     */
+    private void remove(int i) {
+        size--;
+        x[i] = x[size];
+        y[i] = y[size];
+        velocityX[i] = velocityX[size];
+        velocityY[i] = velocityY[size];
+        life[i] = life[size];
+        color[i] = color[size];
+    }
+
+    /**
+     * @return a random number from {@code 0} to {@code 1}, from an xorshift generator
+     */
+    private double random() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return (seed >>> 11) * 0x1.0p-53;
+    }
+
+}
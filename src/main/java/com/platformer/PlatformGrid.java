@@ -0,0 +1,193 @@
+package com.platformer;
+
+// imports
+import java.util.function.IntPredicate;
+
+/**
+ * Uniform spatial grid over a level, used to find the platforms near the player without
+ * walking every platform. Each cell is {@link GameValues#PLATFORM_SIZE} wide and tall,
+ * and stores the {@link LevelGeometry} index of every platform that covers it. The cells
+ * are packed into one array, with {@code cellStart[cell]} pointing to the first platform
+ * of each cell.
+ */
+public class PlatformGrid {
+
+    /**
+     * Width and height of a cell.
+     */
+    private final int cellSize;
+
+    /**
+     * Number of columns in the grid.
+     */
+    private int columns;
+
+    /**
+     * Number of rows in the grid.
+     */
+    private int rows;
+
+    /**
+     * Index of the first platform of each cell in {@link PlatformGrid#cellItems}.
+     * The platforms of a cell end where the next cell starts.
+     */
+    private int[] cellStart = new int[1];
+
+    /**
+     * Platforms of every cell, stored one cell after another.
+     */
+    private int[] cellItems = new int[0];
+
+    /**
+     * Platforms found by the last query.
+     */
+    private int[] results = new int[16];
+
+    /**
+     * Creates an empty {@link PlatformGrid}.
+     *
+     * @param cellSize width and height of a cell
+     */
+    public PlatformGrid(int cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Rebuilds the grid from the platforms of a level. The platforms are walked twice,
+     * once to count the platforms of each cell and once to store them.
+     *
+     * @param geometry platforms of the level
+     * @param width width of the level
+     * @param height height of the level
+     */
+    public void build(LevelGeometry geometry, int width, int height) {
+        build(geometry, platform -> true, width, height);
+    }
+
+    /**
+     * Rebuilds the grid from some of the platforms of a level.
+     *
+     * @param geometry platforms of the level
+     * @param include tests if a platform is stored in the grid
+     * @param width width of the level
+     * @param height height of the level
+     */
+    public void build(LevelGeometry geometry, IntPredicate include, int width, int height) {
+        columns = Math.max(1, (width + cellSize - 1) / cellSize);
+        rows = Math.max(1, (height + cellSize - 1) / cellSize);
+        int cells = columns * rows;
+
+        // count platforms per cell
+        int[] counts = new int[cells + 1];
+        for (int platform = 0; platform < geometry.size(); platform++) {
+            if (!include.test(platform)) continue;
+
+            int col0 = column(geometry.getLeft(platform)), col1 = column(geometry.getRight(platform) - 1);
+            int row0 = row(geometry.getTop(platform)), row1 = row(geometry.getBottom(platform) - 1);
+            for (int row = row0; row <= row1; row++)
+                for (int col = col0; col <= col1; col++)
+                    counts[row * columns + col + 1]++;
+        }
+
+        // prefix sum into cell start indices
+        for (int cell = 0; cell < cells; cell++)
+            counts[cell + 1] += counts[cell];
+        cellStart = counts;
+        cellItems = new int[counts[cells]];
+
+        // store platforms
+        int[] next = new int[cells];
+        System.arraycopy(counts, 0, next, 0, cells);
+        for (int platform = 0; platform < geometry.size(); platform++) {
+            if (!include.test(platform)) continue;
+
+            int col0 = column(geometry.getLeft(platform)), col1 = column(geometry.getRight(platform) - 1);
+            int row0 = row(geometry.getTop(platform)), row1 = row(geometry.getBottom(platform) - 1);
+            for (int row = row0; row <= row1; row++)
+                for (int col = col0; col <= col1; col++)
+                    cellItems[next[row * columns + col]++] = platform;
+        }
+    }
+
+    /**
+     * Finds every platform that may touch a box. Edges count as touching, so the cells one
+     * pixel to the left and above the box are also searched. The results are read with
+     * {@link PlatformGrid#get(int)} and are replaced by the next query.
+     *
+     * @param left x coordinate of the left side of the box
+     * @param top y coordinate of the top side of the box
+     * @param right x coordinate of the right side of the box
+     * @param bottom y coordinate of the bottom side of the box
+     * @return number of platforms found
+     */
+    public int query(int left, int top, int right, int bottom) {
+        int col0 = column(left - 1), col1 = column(right);
+        int row0 = row(top - 1), row1 = row(bottom);
+
+        int count = 0;
+        for (int row = row0; row <= row1; row++) {
+            for (int col = col0; col <= col1; col++) {
+                int cell = row * columns + col;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    int platform = cellItems[i];
+
+                    // skip platforms already found in another cell
+                    boolean found = false;
+                    for (int j = 0; j < count && !found; j++)
+                        found = results[j] == platform;
+                    if (found) continue;
+
+                    if (count == results.length)
+                        results = java.util.Arrays.copyOf(results, count * 2);
+                    results[count++] = platform;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param index index of the result
+     * @return {@link LevelGeometry} index of a platform found by the last query
+     */
+    public int get(int index) {
+        return results[index];
+    }
+
+    /**
+     * @param column column of the cell
+     * @param row row of the cell
+     * @return number of platforms stored in the cell
+     */
+    public int count(int column, int row) {
+        int cell = row * columns + column;
+        return cellStart[cell + 1] - cellStart[cell];
+    }
+
+    /**
+     * @param column column of the cell
+     * @param row row of the cell
+     * @param index index of the platform in the cell
+     * @return {@link LevelGeometry} index of a platform stored in the cell
+     */
+    public int get(int column, int row, int index) {
+        return cellItems[cellStart[row * columns + column] + index];
+    }
+
+    /**
+     * @param x x coordinate
+     * @return column containing the coordinate, clamped to the grid
+     */
+    public int column(int x) {
+        return Math.clamp(Math.floorDiv(x, cellSize), 0, columns - 1);
+    }
+
+    /**
+     * @param y y coordinate
+     * @return row containing the coordinate, clamped to the grid
+     */
+    public int row(int y) {
+        return Math.clamp(Math.floorDiv(y, cellSize), 0, rows - 1);
+    }
+
+}
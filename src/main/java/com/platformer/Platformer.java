@@ -3,11 +3,13 @@ package com.platformer;
 // javafx imports
 import javafx.animation.AnimationTimer;
 import javafx.application.Application;
-import javafx.geometry.Point2D;
+import javafx.application.Platform;
 import javafx.scene.Scene;
+import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
 import javafx.stage.Stage;
 import javafx.scene.paint.Color;
+import javafx.scene.paint.ImagePattern;
 import javafx.util.Pair;
 
 // utility imports
@@ -46,32 +48,86 @@ public class Platformer extends Application
     private final PageStack pageNavigator = new PageStack();
 
     /**
-     * Map of keys being currently pressed. True if the key is being pressed and vice versa.
+     * Keys being currently pressed, updated by the key events of the scene.
      */
-    private final HashMap<KeyCode, Boolean> keyMap = new HashMap<>();
+    private final InputState input = new InputState();
 
     /**
-     * Main game loop, implemented using a {@link AnimationTimer}.
-     * The method {@link Platformer#updateGame()} is run each tick of the timer.
+     * Keys at the start of the current tick.
      */
-    private final AnimationTimer gameTimer = new AnimationTimer() {
+    private InputSnapshot keys = input.snapshot();
+
+    /**
+     * Main game loop, implemented using a {@link SimulationLoop} on its own thread.
+     * The method {@link Platformer#updateGame()} is run {@link GameValues#TICK_RATE} times a second,
+     * and the result of each tick is published to {@link Platformer#frames}.
+     * Anything that changes the scene is handed to the JavaFX Application Thread with
+     * {@link Platformer#handOff(Runnable)}. The loop sleeps while the player stands still
+     * with no keys down, until a key event wakes it.
+     */
+    private final SimulationLoop simulation = new SimulationLoop("simulation", TICK_RATE, MAX_CATCH_UP_TICKS) {
         @Override
-        public void handle(long now) {
+        protected boolean tick(long time) {
+            keys = input.snapshot();
+            player.savePrevious();
+            int velocityY = player.getVelocityY();
+            allocationMonitor.begin();
             updateGame();
+            allocationMonitor.end();
+            publishFrame(time);
+
+            // the next tick would repeat this one if nothing moved and no keys are down
+            return !keys.isEmpty() || velocityY != player.getVelocityY()
+                    || player.getLeft() != player.getPreviousLeft() || player.getTop() != player.getPreviousTop();
         }
     };
 
     /**
-     * Loop that runs during a pause, using an {@link AnimationTimer}.
-     * The method being run each tick is {@link Platformer#updatePause()}.
+     * Latest state of the game published by the {@link Platformer#simulation}, for drawing.
      */
-    private final AnimationTimer pauseTimer = new AnimationTimer() {
+    private final TripleBuffer<FrameSnapshot> frames = new TripleBuffer<>(FrameSnapshot::new);
+
+    /**
+     * Loop that draws the latest frame, using an {@link AnimationTimer}. At most
+     * {@link GameValues#FRAME_RATE_CAP} frames are drawn a second, with pulses up to half a frame
+     * early accepted so a cap equal to the refresh rate does not skip frames. The timer stops
+     * itself once the simulation is stopped or sleeping, its last frame is drawn, the
+     * {@link Platformer#camera} has stopped easing, and no animated tile is on screen unless the
+     * game is paused, and no particle is left. It is started again by {@link Platformer#resumeGame()} or a key event.
+     * The method being run each frame is {@link Platformer#syncView(FrameSnapshot)}.
+     */
+    private final AnimationTimer renderTimer = new AnimationTimer() {
+        /**
+         * Length of a frame in nanoseconds.
+         */
+        private static final long FRAME_NANOS = 1_000_000_000L / FRAME_RATE_CAP;
+
+        /**
+         * Time in nanoseconds the next frame is due.
+         */
+        private long nextFrame;
+
         @Override
         public void handle(long now) {
-            updatePause();
+            if (now - nextFrame < -FRAME_NANOS / 2) return;
+            nextFrame = Math.max(nextFrame + FRAME_NANOS, now);
+
+            FrameSnapshot frame = frames.front();
+            syncView(frame);
+
+            // stop drawing once nothing can change
+            boolean drawn = System.nanoTime() - frame.getTime() >= simulation.getTickNanos();
+            if (drawn && !simulation.isActive() && !frames.hasFresh() && camera.isSettled()
+                    && (paused || !animator.isAnimating()) && particles.isEmpty())
+                stop();
         }
     };
 
+    /**
+     * If the game is paused. Key presses are then passed to {@link Platformer#updatePause()}.
+     */
+    private boolean paused;
+
     /**
      * Reason for pause.
      *
@@ -80,39 +136,137 @@ public class Platformer extends Application
     private PauseTypes pauseReason;
 
     /**
-     * Width of the level being displayed.
+     * Camera scrolling the {@link Platformer#gameLayer} to follow the player, updated once per frame.
+     */
+    private final Camera camera = new Camera(
+            WINDOW_WIDTH, WINDOW_HEIGHT,
+            CAMERA_DEAD_ZONE_WIDTH, CAMERA_DEAD_ZONE_HEIGHT, CAMERA_SMOOTHING
+    );
+
+    /**
+     * Geometry of all platforms in the level. Physics only reads from here, and the
+     * tiles drawn by the {@link Platformer#levelRenderer} are kept as views.
+     */
+    private final LevelGeometry platforms = new LevelGeometry();
+
+    /**
+     * Texture atlas of the tiles and the player, generated once the kinds of tiles are registered.
+     */
+    private final TileSprites sprites = new TileSprites();
+
+    /**
+     * Draws the static tiles of the level, with the backend chosen by {@link GameValues#RENDERER}.
+     */
+    private final LevelRenderer levelRenderer = switch (RENDERER) {
+        case "nodes" -> new NodeLevelRenderer();
+        case "canvas" -> new CanvasLevelRenderer(sprites);
+        default -> new ImageLevelRenderer(sprites);
+    };
+
+    /**
+     * Animates lava, checkpoints, and the finish with one shared clock, above the static tiles.
+     */
+    private final TileAnimator animator = new TileAnimator();
+
+    /**
+     * Background behind the {@link Platformer#gameLayer}, scrolled at fractions of the camera.
+     */
+    private final ParallaxBackground background = new ParallaxBackground(WINDOW_WIDTH, WINDOW_HEIGHT, BACKGROUND_COLOR);
+
+    /**
+     * Thumbnails of the levels on the level selection page, drawn or read on a background thread.
+     */
+    private final LevelThumbnails thumbnails = new LevelThumbnails(DATA_FOLDER.resolve("thumbnails"), PAGES.length);
+
+    /**
+     * Particles of deaths, checkpoints, and finishes, drawn above the game layer.
+     */
+    private final ParticleSystem particles = new ParticleSystem(WINDOW_WIDTH, WINDOW_HEIGHT);
+
+    /**
+     * Colour of the particles of a death in lava.
+     */
+    private final int deathParticleColor = particles.addColor(LAVA_COLOR);
+
+    /**
+     * Colour of the particles of a new checkpoint.
+     */
+    private final int checkpointParticleColor = particles.addColor(CHECKPOINT_COLOR);
+
+    /**
+     * Colour of the particles of a finish.
+     */
+    private final int finishParticleColor = particles.addColor(FINISH_COLOR);
+
+    /**
+     * Registry of every kind of tile, with its colour, shape, behaviour, and action.
+     */
+    private final TileRegistry tiles = new TileRegistry();
+
+    /**
+     * Position, velocity, and jumping state of the player, updated in place each tick.
+     */
+    private final PlayerState player = new PlayerState(PLAYER_SIZE);
+
+    /**
+     * Movement, collision, and triggers of the {@link Platformer#player} in the
+     * {@link Platformer#platforms}, rebuilt each time a level is loaded.
+     */
+    private final LevelPhysics physics = new LevelPhysics(player, platforms, tiles);
+
+    /**
+     * The {@link Rectangle} that represents the player, moved to match
+     * {@link Platformer#player} once per frame.
+     */
+    private Rectangle playerView;
+
+    /**
+     * Spawnpoint of player, changed in place so touching a checkpoint allocates nothing.
+     */
+    private final int[] spawn = new int[2];
+
+    /**
+     * Widget of the {@link Platformer#hud} showing the death count.
+     */
+    private final HudCounter deathCounter = new HudCounter(
+            DEATHCOUNT_DISPLAY,
+            deaths -> deaths < 1000 ? "Deaths: " + deaths : "You suck"
+    );
+
+    /**
+     * Heads-up display on the {@link Platformer#topLayer}.
      */
-    private int levelWidth;
+    private final Hud hud = new Hud(deathCounter);
 
     /**
-     * Height of the level being displayed.
+     * Checks that the game tick allocates nothing, if enabled.
      */
-    private int levelHeight;
+    private final AllocationMonitor allocationMonitor = new AllocationMonitor();
 
     /**
-     * Main LinkedList of all platforms in the {@link Platformer#gameLayer}.
+     * Measures the delay from a key press to the movement it causes, if enabled.
      */
-    private final RectangleList platforms = new RectangleList();
+    private final LatencyTracer latencyTracer = new LatencyTracer();
 
     /**
-     * The {@link Rectangle} that represents the player.
+     * Keys traced by the {@link Platformer#latencyTracer}.
      */
-    private Rectangle player;
+    private static final KeyCode[] TRACED_KEYS = {LEFT_KEY, RIGHT_KEY, JUMP_KEY};
 
     /**
-     * Spawnpoint of player.
+     * Direction each traced key moves the player in the x direction, or {@code 0} if none.
      */
-    private int[] spawn;
+    private static final int[] TRACED_X = {-1, 1, 0};
 
     /**
-     * The player's velocity as a vector in two dimensions.
+     * Direction each traced key moves the player in the y direction, or {@code 0} if none.
      */
-    private Point2D playerVelocity = new Point2D(0, 0);
+    private static final int[] TRACED_Y = {0, 0, -1};
 
     /**
-     * If the player can jump.
+     * Time each traced key was pressed, or {@code 0} if it has not moved the player yet.
      */
-    private boolean canJump = false;
+    private final long[] pendingPresses = new long[TRACED_KEYS.length];
 
     /**
      * If the player is invincible.
@@ -120,9 +274,16 @@ public class Platformer extends Application
     private boolean invincible = false;
 
     /**
-     * Start point of a level.
+     * Index of the platform the player currently spawns at, either the start point
+     * or the last checkpoint touched.
      */
-    private Rectangle startPoint;
+    private int startPoint;
+
+    /**
+     * Index of the platform currently displayed as the start point.
+     * Updated from the start point of the latest frame, on the JavaFX Application Thread.
+     */
+    private int drawnStartPoint;
 
     /**
      * Records the death count of each level.
@@ -139,18 +300,41 @@ public class Platformer extends Application
      */
     private final Pair<String, Integer>[][] leaderboard = new Pair[10][5];
 
+    /**
+     * View of the {@link Platformer#leaderboard} on the leaderboards page, kept between visits.
+     */
+    private final LeaderboardView leaderboardView = new LeaderboardView(75, 210, 1200, 270);
+
     /**
      * Initializes the content for the application. Loads instructions,
      * adds the main parts of the GUI, and initializes leaderboard.
      */
     private void initContent() {
+        // register kinds of tiles, and generate their atlas
+        initTiles();
+        sprites.build(tiles, PLAYER_COLOR);
+        thumbnails.start(PAGES, 1, 9, tiles);
+
+        // parallax layers, far to near
+        background.addLayer(ParallaxBackground.dots(256, 40, 1, Color.gray(0.75, 0.6), 1), 0.15);
+        background.addLayer(ParallaxBackground.dots(384, 14, 4, Color.gray(0.8, 0.35), 2), 0.35);
+        background.addLayer(ParallaxBackground.dots(512, 6, 12, Color.gray(0.85, 0.25), 3), 0.6);
+
+        // animated kinds of tiles
+        animator.flow(LAVA_TYPE, TileAnimator.stripes(Color.YELLOW, 0.35), 1.5);
+        animator.pulse(START_TYPE, Color.WHITE, 0.45, 1.2);
+        animator.pulse(CHECKPOINT_TYPE, Color.WHITE, 0.45, 1.2);
+        animator.pulse(FINISH_TYPE, Color.WHITE, 0.45, 0.8);
+
         // show instructions
         loadLevel(INSTRUCTIONS, true);
 
         // add layers of GUI to app
+        camera.attach(gameLayer);
         appRoot.add(
-                new Rectangle(WINDOW_WIDTH, WINDOW_HEIGHT, BACKGROUND_COLOR, UNINTERACTABLE_TYPE), // background
+                background,
                 gameLayer,
+                particles.getNode(),
                 topLayer
         );
 
@@ -160,6 +344,48 @@ public class Platformer extends Application
                 leaderboard[levelNum][placement] = new Pair<>("Default", Integer.MAX_VALUE);
     }
 
+    /**
+     * Registers every kind of tile in the {@link Platformer#tiles} registry, with
+     * its colour, shape, behaviour, and action when touched.
+     */
+    private void initTiles() {
+        // blocks found in levels
+        LevelPhysics.registerBlocks(tiles, this::touchCheckpoint, this::touchFinish, this::touchLava);
+
+        // navigation buttons
+        tiles.registerButton(GOTO_GAME_TYPE, GOTO_GAME_COLOR, 4 * PLATFORM_SIZE, "Go to Game",
+                () -> switchPage(() -> loadLevel(MAIN_MENU, true)));
+        tiles.registerButton(LEVEL_SELECTION_TYPE, LEVEL_SELECTION_COLOR, 3 * PLATFORM_SIZE, "Levels",
+                () -> switchPage(() -> loadLevel(LEVEL_SELECTION, true)));
+        tiles.registerButton(OPTIONS_TYPE, OPTIONS_COLOR, 3 * PLATFORM_SIZE, "Options",
+                () -> switchPage(() -> loadLevel(OPTIONS_MENU, true)));
+        tiles.registerButton(LEADERBOARD_TYPE, LEADERBOARD_COLOR, 4 * PLATFORM_SIZE, "Leaderboard",
+                () -> switchPage(() -> loadLevel(LEADERBOARDS, true)));
+        tiles.registerButton(BACK_TYPE, BACK_COLOR, 3 * PLATFORM_SIZE, "Back", () -> switchPage(() -> {
+            pageNavigator.pop();
+            loadLevel(pageNavigator.top(), false);
+        }));
+        tiles.registerButton(INSTRUCTIONS_TYPE, INSTRUCTIONS_COLOR, 4 * PLATFORM_SIZE, "Instructions", () -> switchPage(() -> {
+            pageNavigator.clear();
+            loadLevel(INSTRUCTIONS, true);
+        }));
+
+        // saves data to leaderboard, the file is written on the simulation thread
+        tiles.registerButton(SAVE_DATA_TYPE, SAVE_DATA_COLOR, 4 * PLATFORM_SIZE, "Save Data", () -> {
+            loadData();
+            mergeData();
+            saveData();
+            pauseGame(PauseTypes.SAVE_PAUSE, SAVE_DATA_TEXT);
+        });
+
+        // level buttons
+        for (char type = '1'; type <= '9'; type++) {
+            int level = type - '0';
+            tiles.registerButton(type, LEVEL_COLOR, 3 * PLATFORM_SIZE, "Level " + type,
+                    () -> switchPage(() -> loadLevel(level, true)));
+        }
+    }
+
     /**
      * Loads all of a level. Adds the page to the navigator if specified.
      *
@@ -171,245 +397,156 @@ public class Platformer extends Application
         if (addNavigator)
             pageNavigator.add(level);
         gameLayer.clear();
+        levelRenderer.clear(level);
+        gameLayer.add(levelRenderer.getNode());
+        animator.clear();
+        gameLayer.add(animator.getNode());
+        particles.clear();
         topLayer.clear();
-        platforms.clear();
+        topLayer.add(hud);
 
         // load all blocks on screen
         String[] currentLevel = PAGES[level];
-        levelWidth = currentLevel[0].length() * PLATFORM_SIZE;
-        levelHeight = currentLevel.length * PLATFORM_SIZE;
-        for (int i = 0; i < currentLevel.length; i++)
-            for (int j = 0; j < currentLevel[i].length(); j++)
-                loadBlocks(
-                        currentLevel[i].charAt(j),
-                        j * PLATFORM_SIZE, i * PLATFORM_SIZE
-                );
+        sprites.setLevel(currentLevel);
+        physics.load(currentLevel, this::placeTile);
+        int levelWidth = physics.getLevelWidth(), levelHeight = physics.getLevelHeight();
+        camera.reset(levelWidth, levelHeight);
+        levelRenderer.finish(levelWidth, levelHeight);
+        animator.finish(levelWidth, levelHeight);
+
+        // level start point
+        startPoint = physics.getStart();
+        if (startPoint >= 0)
+            setSpawn(platforms.getLeft(startPoint) - PLATFORM_SIZE / 4, platforms.getTop(startPoint) - PLATFORM_SIZE / 4);
+        drawnStartPoint = startPoint;
 
         // set spawnpoint of special levels
         if (level == INSTRUCTIONS) {
-            spawn = new int[]{22 * PLATFORM_SIZE, 21 * PLATFORM_SIZE};
+            setSpawn(22 * PLATFORM_SIZE, 21 * PLATFORM_SIZE);
             gameLayer.add(INSTRUCTIONS_TEXT);
         }
         else if (level == MAIN_MENU)
-            spawn = new int[]{22 * PLATFORM_SIZE, 21 * PLATFORM_SIZE};
-        else if (level == LEVEL_SELECTION)
-            spawn = new int[]{3 * PLATFORM_SIZE, 21 * PLATFORM_SIZE};
+            setSpawn(22 * PLATFORM_SIZE, 21 * PLATFORM_SIZE);
+        else if (level == LEVEL_SELECTION) {
+            setSpawn(3 * PLATFORM_SIZE, 21 * PLATFORM_SIZE);
+            addThumbnails();
+        }
         else if (level == OPTIONS_MENU)
-            spawn = new int[]{22 * PLATFORM_SIZE, 18 * PLATFORM_SIZE};
+            setSpawn(22 * PLATFORM_SIZE, 18 * PLATFORM_SIZE);
         else if (level == LEADERBOARDS) {
-            spawn = new int[]{22 * PLATFORM_SIZE, 17 * PLATFORM_SIZE};
-            gameLayer.add(LEADERBOARD(leaderboard));
+            setSpawn(22 * PLATFORM_SIZE, 17 * PLATFORM_SIZE);
+            leaderboardView.setData(leaderboard);
+            gameLayer.add(leaderboardView);
         }
 
-        // add death count display
+        // show death count display
+        hud.show(deathCounter, level < 10);
         if (level < 10) {
-            topLayer.add(DEATHCOUNT_DISPLAY);
             finishedLevels[level] = false;
             deathCounts[pageNavigator.top()] = 0;
         }
 
         // initialize the player
         initPlayer();
+
+        // show the new level before its first tick
+        publishFrame(System.nanoTime());
     }
 
     /**
-     * Takes in a type of {@link Rectangle} and the coordinates, creates a
-     * {@link Rectangle} at the coordinates, and adds it to the platforms list.
+     * Draws a box of the level with the {@link Platformer#levelRenderer}, and animates it
+     * if its type is animated. The colour and label come from the {@link Platformer#tiles} registry.
      *
-     * @param type type of {@link Rectangle}
-     * @param x x coordinate
-     * @param y y coordinate
-     */
-    private void loadBlocks(char type, int x, int y) {
-        switch (type) {
-            // empty space
-            case ' ' -> {}
-
-            // level start point
-            case START_TYPE -> {
-                spawn = new int[]{x, y};
-                platforms.add(startPoint = createRectangle(
-                        x + PLATFORM_SIZE / 4, y + PLATFORM_SIZE / 4,
-                        PLATFORM_SIZE / 2, PLATFORM_SIZE / 2,
-                        SPAWN_COLOR, START_TYPE
-                ));
-            }
+     * @param kind kind of tile
+     * @param type type of tile
+     * @param left x coordinate of the left side of the box
+     * @param top y coordinate of the top side of the box
+     * @param width width of the box
+     * @param height height of the box
+     * @return view of the box in the {@link Platformer#levelRenderer}
+     */
+    private int placeTile(int kind, char type, int left, int top, int width, int height) {
+        if (animator.isAnimated(type))
+            animator.add(left, top, width, height, type);
+
+        // buttons have a label
+        if (tiles.is(kind, TileRegistry.BUTTON))
+            return levelRenderer.fillButton(left, top, width, height, tiles.getColor(kind), type, tiles.getLabel(kind));
+        return levelRenderer.fillTile(left, top, width, height, tiles.getColor(kind), type);
+    }
 
-            // level checkpoint
-            case CHECKPOINT_TYPE -> platforms.add(createRectangle(
-                    x + PLATFORM_SIZE / 4, y + PLATFORM_SIZE / 4,
-                    PLATFORM_SIZE / 2, PLATFORM_SIZE / 2,
-                    CHECKPOINT_COLOR, CHECKPOINT_TYPE
-            ));
-
-            // level finish
-            case FINISH_TYPE -> platforms.add(createRectangle(
-                    x + PLATFORM_SIZE / 4, y + PLATFORM_SIZE / 4,
-                    PLATFORM_SIZE / 2, PLATFORM_SIZE / 2,
-                    FINISH_COLOR, FINISH_TYPE
-            ));
-
-            // thick ground
-            case GROUND_TYPE -> platforms.add(createRectangle(
-                    x, y, PLATFORM_SIZE, PLATFORM_SIZE,
-                    GROUND_COLOR, GROUND_TYPE
-            ));
-
-            // thin ground
-            case THIN_GROUND_TYPE -> platforms.add(createRectangle(
-                    x, y, PLATFORM_SIZE, PLATFORM_SIZE / 5,
-                    GROUND_COLOR, THIN_GROUND_TYPE
-            ));
-
-            // wooden plank
-            case PLANK_TYPE -> platforms.add(createRectangle(
-                    x, y, PLATFORM_SIZE, PLATFORM_SIZE / 5,
-                    PLANK_COLOR, PLANK_TYPE
-            ));
-
-            // lava
-            case LAVA_TYPE -> platforms.add(createRectangle(
-                    x, y + PLATFORM_SIZE * 4 / 5,
-                    PLATFORM_SIZE, PLATFORM_SIZE / 5,
-                    LAVA_COLOR, LAVA_TYPE
-            ));
-
-            // main menu button
-            case GOTO_GAME_TYPE -> platforms.add(createRectangle(
-                    x, y,
-                    4 * PLATFORM_SIZE,
-                    GOTO_GAME_COLOR, GOTO_GAME_TYPE,
-                    "Go to Game"
-            ));
-
-            // level selection button
-            case LEVEL_SELECTION_TYPE -> platforms.add(createRectangle(
-                    x, y,
-                    3 * PLATFORM_SIZE,
-                    LEVEL_SELECTION_COLOR, LEVEL_SELECTION_TYPE,
-                    "Levels"
-            ));
-
-            // options button
-            case OPTIONS_TYPE -> platforms.add(createRectangle(
-                    x, y,
-                    3 * PLATFORM_SIZE,
-                    OPTIONS_COLOR, OPTIONS_TYPE,
-                    "Options"
-            ));
-
-            // back button
-            case BACK_TYPE -> platforms.add(createRectangle(
-                    x, y,
-                    3 * PLATFORM_SIZE,
-                    BACK_COLOR, BACK_TYPE,
-                    "Back"
-            ));
-
-            // leaderboard button
-            case LEADERBOARD_TYPE -> platforms.add(createRectangle(
-                    x, y,
-                    4 * PLATFORM_SIZE,
-                    LEADERBOARD_COLOR, LEADERBOARD_TYPE,
-                    "Leaderboard"
-            ));
-
-            // save data button
-            case SAVE_DATA_TYPE -> platforms.add(createRectangle(
-                    x, y,
-                    4 * PLATFORM_SIZE,
-                    SAVE_DATA_COLOR, SAVE_DATA_TYPE,
-                    "Save Data"
-            ));
-
-            // instructions button
-            case INSTRUCTIONS_TYPE -> platforms.add(createRectangle(
-                    x, y,
-                    4 * PLATFORM_SIZE,
-                    INSTRUCTIONS_COLOR, INSTRUCTIONS_TYPE,
-                    "Instructions"
-            ));
-
-            // level buttons
-            default -> {
-                if (type < '1' || type > '9')
-                    throw new RuntimeException("Illegal blocks in code: " + type);
-
-                platforms.add(createRectangle(
-                        x, y,
-                        3 * PLATFORM_SIZE,
-                        LEVEL_COLOR, type,
-                        "Level " + type
-                ));
-            }
+    /**
+     * Adds the thumbnail of each level above its button on the level selection page.
+     * Thumbnails not ready yet show a placeholder, and change once they are ready.
+     */
+    private void addThumbnails() {
+        for (int platform = 0; platform < platforms.size(); platform++) {
+            char symbol = tiles.getSymbol(platforms.getKind(platform));
+            if (symbol < '1' || symbol > '9') continue;
+
+            ImageView view = thumbnails.getView(symbol - '0');
+            int width = platforms.getRight(platform) - platforms.getLeft(platform);
+            view.setLayoutX(platforms.getLeft(platform) + (width - LevelThumbnails.WIDTH) / 2.0);
+            view.setLayoutY(platforms.getTop(platform) - LevelThumbnails.HEIGHT - 6);
+            gameLayer.add(view);
         }
     }
 
     /**
-     * Initializes the player. Creates the player, adds scrolling functionality,
-     * and sets the player to spawn position. See {@link javafx.beans.value.ChangeListener}
-     * for more information about the lambda used for the scrolling.
+     * Initializes the player. Creates the player, and sets the player to spawn position.
      */
     private void initPlayer() {
-        player = createRectangle(
+        playerView = createRectangle(
                 spawn[0], spawn[1],
                 PLAYER_SIZE, PLAYER_SIZE,
                 PLAYER_COLOR, PLAYER_TYPE
         );
-        player.translateXProperty().addListener(
-                (observableValue, oldValue, newValue) -> {
-                    int offset = newValue.intValue();
-                    if (offset > WINDOW_WIDTH / 2 && offset < levelWidth - WINDOW_WIDTH / 2)
-                        gameLayer.setLayoutX((double) WINDOW_WIDTH / 2 - offset);
-                }
-        );
-        player.translateYProperty().addListener(
-                (observableValue, oldValue, newValue) -> {
-                    int offset = newValue.intValue();
-                    if (offset > WINDOW_HEIGHT / 2 && offset < levelHeight - WINDOW_HEIGHT / 2)
-                        gameLayer.setLayoutY((double) WINDOW_HEIGHT / 2 - offset);
-                }
-        );
+        playerView.setFill(new ImagePattern(sprites.getPlayer()));
         playerDeath(false);
     }
 
     /**
-     * Updates the main game. Checks for key press and updates things such as death count display,
-     * gravity, and block collision and interaction
+     * Updates the main game. Checks for key press and updates things such as gravity,
+     * and block collision and interaction. Allocates nothing once a level is running.
      */
     private void updateGame() {
-        // detect key press
-        if (isPressed(JUMP_KEY) && player.getTop() >= 5)
-            jumpPlayer();
-        if (isPressed(LEFT_KEY) && player.getLeft() >= 5)
-            movePlayerX(-5);
-        if (isPressed(RIGHT_KEY) && player.getRight() <= levelWidth - 5)
-            movePlayerX(5);
-        if (isPressed(FALL_KEY))
-            fallThroughPlank();
-        if (isPressed(PAUSE_KEY) && isLevel()) {
-            pauseReason = PauseTypes.LEVEL_PAUSE;
-            gameTimer.stop();
-            pauseTimer.start();
-            topLayer.add(PAUSE_TEXT);
-        }
+        int oldLeft = player.getLeft(), oldTop = player.getTop();
 
-        // player invicibility check
+        // pause, and player invicibility check
+        if (wasPressed(PAUSE_KEY) && isLevel())
+            pauseGame(PauseTypes.LEVEL_PAUSE, PAUSE_TEXT);
         invincible = isPressed(INVINCIBLE_KEY);
 
-        // deathcount display
-        if (isLevel())
-            DEATHCOUNT_DISPLAY.setText(
-                    deathCounts[pageNavigator.top()] < 1000 ? "Deaths: " + deathCounts[pageNavigator.top()] : "You suck"
-            );
+        // movement, collision, and interactions
+        physics.tick(keys);
 
-        // gravity
-        if (playerVelocity.getY() < 10)
-            playerVelocity = playerVelocity.add(0, 1);
-        movePlayerY((int) playerVelocity.getY());
+        // input latency
+        if (latencyTracer.isEnabled())
+            traceLatency(oldLeft, oldTop);
+    }
 
-        // check collision and interactions
-        checkBlockType();
+    /**
+     * Records the delay from each traced key press to the first tick where the player
+     * moves in the direction of the key. Presses released without moving are dropped.
+     *
+     * @param oldLeft x coordinate of the left side of the player before the tick
+     * @param oldTop y coordinate of the top side of the player before the tick
+     */
+    private void traceLatency(int oldLeft, int oldTop) {
+        int dx = Integer.signum(player.getLeft() - oldLeft), dy = Integer.signum(player.getTop() - oldTop);
+        for (int i = 0; i < TRACED_KEYS.length; i++) {
+            if (wasPressed(TRACED_KEYS[i]))
+                pendingPresses[i] = keys.getPressTime(TRACED_KEYS[i]);
+            else if (!isPressed(TRACED_KEYS[i]))
+                pendingPresses[i] = 0;
+
+            // first movement caused by the key
+            boolean moved = TRACED_X[i] != 0 && dx == TRACED_X[i] || TRACED_Y[i] != 0 && dy == TRACED_Y[i];
+            if (pendingPresses[i] != 0 && moved) {
+                latencyTracer.record(pendingPresses[i]);
+                pendingPresses[i] = 0;
+            }
+        }
     }
 
     /**
@@ -429,28 +566,6 @@ public class Platformer extends Application
         return rectangle;
     }
 
-    /**
-     * Creates a {@link TextRectangle}
-     *
-     * @param x x coordinate of {@link TextRectangle}
-     * @param y y coordinate of {@link TextRectangle}
-     * @param width width of {@link TextRectangle}
-     * @param color colour of {@link TextRectangle}
-     * @param type type of {@link TextRectangle}
-     * @param text text on the {@link TextRectangle}
-     * @return the {@link TextRectangle} that was created
-     */
-    private Rectangle createRectangle(int x, int y, int width, Color color, char type, String text) {
-        TextRectangle textRectangle = new TextRectangle(
-                x - (width - PLATFORM_SIZE) / 2, y - 10,
-                width, PLATFORM_SIZE,
-                color, type,
-                text, true
-        );
-        gameLayer.add(textRectangle);
-        return textRectangle;
-    }
-
     /**
      * Checks if the current screen is a level or not.
      *
@@ -467,250 +582,229 @@ public class Platformer extends Application
      * @return If the key is being pressed
      */
     private boolean isPressed(KeyCode key) {
-        return keyMap.getOrDefault(key, false);
+        return keys.isDown(key);
     }
 
     /**
-     * Checks if a platform is being "interacted" with.
+     * Checks if a key went down this tick, so actions fire once per press.
      *
-     * @param platform Intersecting platform
-     * @param buttonColor Color of platform
-     * @return If there is interaction
+     * @param key Key to check
+     * @return If the key was just pressed
      */
-    private boolean buttonPressed(Rectangle platform, Color buttonColor) {
-        return platform.isColor(buttonColor) && isPressed(INTERACT_KEY);
+    private boolean wasPressed(KeyCode key) {
+        return keys.pressedThisTick(key);
     }
 
     /**
-     * Checks player collision and interactions with blocks.
-     * Carry out different actions based on each.
+     * Publishes the state of the game at the end of a tick to {@link Platformer#frames}.
+     * Only called by the thread that owns the game state.
+     *
+     * @param time scheduled time of the tick in nanoseconds
      */
-    private void checkBlockType() {
-        for (final Rectangle platform : platforms) { // platform
-            boolean touchingPlatform = player.getBoundsInParent().intersects(platform.getBoundsInParent());
-            if (!touchingPlatform) continue;
-
-            // goes to main menu
-            if (buttonPressed(platform, GOTO_GAME_COLOR))
-                loadLevel(MAIN_MENU, true);
-
-                // goes to level selection page
-            else if (buttonPressed(platform, LEVEL_SELECTION_COLOR))
-                loadLevel(LEVEL_SELECTION, true);
-
-                // goes to options page
-            else if (buttonPressed(platform, OPTIONS_COLOR))
-                loadLevel(OPTIONS_MENU, true);
-
-                // goes to leaderboard page
-            else if (buttonPressed(platform, LEADERBOARD_COLOR))
-                loadLevel(LEADERBOARDS, true);
-
-                // loads a level
-            else if (buttonPressed(platform, LEVEL_COLOR))
-                loadLevel(platform.getType() - '0', true);
-
-                // goes back a page
-            else if (buttonPressed(platform, BACK_COLOR)) {
-                pageNavigator.pop();
-                loadLevel(pageNavigator.top(), false);
-            }
-
-            // saves data to leaderboard
-            else if (buttonPressed(platform, SAVE_DATA_COLOR)) {
-                loadData();
-                mergeData();
-                saveData();
-                gameTimer.stop();
-                pauseTimer.start();
-                topLayer.add(SAVE_DATA_TEXT);
-                pauseReason = PauseTypes.SAVE_PAUSE;
-            }
-
-            // goes to instructions page
-            else if (buttonPressed(platform, INSTRUCTIONS_COLOR)) {
-                pageNavigator.clear();
-                loadLevel(INSTRUCTIONS, true);
-            }
-
-            // sets spawnpoint and updates checkpoint color
-            else if (platform.isColor(CHECKPOINT_COLOR)) {
-                spawn = new int[]{platform.getLeft() - PLATFORM_SIZE / 4, platform.getTop() - PLATFORM_SIZE / 4};
-                startPoint.setFill(CHECKPOINT_COLOR);
-                platform.setFill(SPAWN_COLOR);
-                startPoint = platform;
-            }
+    private void publishFrame(long time) {
+        frames.back().set(time, player, isLevel() ? deathCounts[pageNavigator.top()] : -1, startPoint);
+        frames.publish();
+    }
 
-            // finish level
-            else if (platform.isColor(FINISH_COLOR)) {
-                finishedLevels[pageNavigator.top()] = true;
-                gameTimer.stop();
-                pauseTimer.start();
-                topLayer.add(FINISH_TEXT);
-                pauseReason = PauseTypes.FINISH_PAUSE;
-            }
+    /**
+     * Syncs the {@link Rectangle}s displaying the player and the level with a frame published
+     * by the {@link Platformer#simulation}. Run once per pulse on the JavaFX Application Thread,
+     * and never reads the game state itself. The player is drawn between its last two positions,
+     * so movement stays smooth at any refresh rate. With {@link GameValues#LOW_LATENCY_INPUT},
+     * the player is drawn at its newest position, which shows key presses up to a tick sooner.
+     *
+     * @param frame latest frame
+     */
+    private void syncView(FrameSnapshot frame) {
+        double alpha = LOW_LATENCY_INPUT
+                ? 1
+                : Math.clamp((double) (System.nanoTime() - frame.getTime()) / simulation.getTickNanos(), 0, 1);
+        double x = frame.interpolateLeft(alpha), y = frame.interpolateTop(alpha);
+        playerView.setCoords(x, y);
+        camera.update(x, y, System.nanoTime());
+        levelRenderer.setViewport(camera.getLeft(), camera.getTop(), WINDOW_WIDTH, WINDOW_HEIGHT);
+        background.scroll(camera.getLeft(), camera.getTop());
+        animator.setViewport(camera.getLeft(), camera.getTop(), WINDOW_WIDTH, WINDOW_HEIGHT);
+        animator.update(System.nanoTime());
+        particles.update(System.nanoTime(), camera.getLeft(), camera.getTop());
+
+        // deathcount display, only changes when the count changes
+        if (frame.getDeaths() >= 0) deathCounter.set(frame.getDeaths());
+
+        if (drawnStartPoint == frame.getStartPoint()) return;
+
+        // swap start point and checkpoint colours
+        levelRenderer.setColor(platforms.getView(drawnStartPoint), CHECKPOINT_COLOR);
+        levelRenderer.setColor(platforms.getView(frame.getStartPoint()), SPAWN_COLOR);
+        drawnStartPoint = frame.getStartPoint();
+    }
 
-            // kills the player if not invincible
-            else if (platform.isColor(LAVA_COLOR) && !invincible)
-                playerDeath(true);
+    /**
+     * Stops the {@link Platformer#simulation} and runs a task on the JavaFX Application Thread,
+     * for anything that changes the scene. The task runs once the current tick has finished, and
+     * owns the game state until it starts the simulation again. Only the first handoff of a tick runs.
+     *
+     * @param task task to run
+     */
+    private void handOff(Runnable task) {
+        if (!simulation.stop()) return;
 
-                // return if any interaction for efficiency
-            else continue;
-            return;
-        }
+        Platform.runLater(() -> {
+            simulation.stop();
+            task.run();
+        });
     }
 
     /**
-     * Allows the player to jump once. Do not jump if in the air or already jumped.
+     * Changes the page on the JavaFX Application Thread, then carries on with the game.
+     *
+     * @param change loads the new page
      */
-    private void jumpPlayer() {
-        if (!canJump) return; // exit if cannot jump
+    private void switchPage(Runnable change) {
+        handOff(() -> {
+            change.run();
+            resumeGame();
+        });
+    }
 
-        for (final Rectangle platform : platforms) { // platform
-            boolean touchingPlatform = player.getBoundsInParent().intersects(platform.getBoundsInParent());
-            boolean underPlatform = player.getTop() == platform.getBottom();
-            if (!touchingPlatform || underPlatform) continue; // exit if cannot jump
+    /**
+     * Starts the {@link Platformer#simulation} and the drawing of its frames.
+     */
+    private void resumeGame() {
+        simulation.start();
+        renderTimer.start();
+    }
 
-            // player jumps
-            playerVelocity = new Point2D(0, -JUMP_HEIGHT);
-            canJump = false;
+    /**
+     * Handles a key event. While paused, the pause screen is updated, and otherwise the
+     * {@link Platformer#simulation} is woken if it was sleeping.
+     */
+    private void handleKey() {
+        if (paused) {
+            keys = input.snapshot();
+            updatePause();
             return;
         }
+
+        simulation.wake();
+        if (simulation.isActive()) renderTimer.start();
     }
 
     /**
-     * Moves the player in the x direction. If the player hits a wall stop moving.
+     * Pauses the game, and shows a pop-up until {@link Platformer#updatePause()} unpauses it.
+     * Nothing is run while paused until a key is pressed.
      *
-     * @param x Steps to move
-     */
-    private void movePlayerX(int x) {
-        boolean movingRight = x > 0;
-        for (int i = 0; i < Math.abs(x); i++) { // step
-            for (final Rectangle platform : platforms) { // platform
-                boolean touchingPlatform = player.getBoundsInParent().intersects(platform.getBoundsInParent());
-                boolean onPlatform = player.getBottom() == platform.getTop();
-                // TT player is on top of a platform                    continue
-                // TF player is on the side of a platform               go to wall check
-                // FT player is on the same y-level but not touching    go to wall check
-                // FF player is in the air                              continue
-                if (touchingPlatform == onPlatform) continue; // logical XNOR
-
-                // don't collide with no collision blocks
-                if (NO_COLLISION_COLORS.contains((Color) platform.getFill())) continue;
-
-                // if hits wall stop moving
-                boolean onPlatformLeft = movingRight && player.getRight() == platform.getLeft();
-                boolean onPlatformRight = !movingRight && player.getLeft() == platform.getRight();
-                if (onPlatformLeft || onPlatformRight) return;
-            }
-
-            // update player x position
-            player.moveX(movingRight ? 1 : -1);
-        }
+     * @param reason reason for pause
+     * @param popUp text boxes to show
+     */
+    private void pauseGame(PauseTypes reason, TextRectangle... popUp) {
+        handOff(() -> {
+            pauseReason = reason;
+            topLayer.add(popUp);
+            paused = true;
+        });
     }
 
     /**
-     * Moves the player in the y direction. If the player falls onto the ground or hits roof stop moving.
+     * Sets the spawnpoint to a checkpoint when touched. The start point
+     * becomes a checkpoint once another checkpoint is touched.
+     * The checkpoint colour is updated by {@link Platformer#syncView(FrameSnapshot)}.
      *
-     * @param y Steps to move
-     */
-    private void movePlayerY(int y) {
-        boolean movingDown = y > 0;
-        for (int i = 0; i < Math.abs(y); i++) { // step
-            for (final Rectangle platform : platforms) { // platform
-                boolean touchingPlatform = player.getBoundsInParent().intersects(platform.getBoundsInParent());
-                if (!touchingPlatform) continue;
-
-                // don't collide with no collision blocks
-                if (NO_COLLISION_COLORS.contains((Color) platform.getFill())) continue;
-
-                boolean onSide = player.getRight() == platform.getLeft() || player.getLeft() == platform.getRight();
-                boolean underPlatform = player.getTop() == platform.getBottom() && !onSide;
-                boolean onPlatform = player.getBottom() == platform.getTop() && !onSide;
-                boolean isPlank = platform.isColor(PLANK_COLOR);
-
-                // hits bottom of platform
-                if (!movingDown && underPlatform && !isPlank) {
-                    playerVelocity = new Point2D(0, 0); // reset y-velocity
-                    return;
-                }
+     * @param platform checkpoint touched
+     * @return if the spawnpoint changed
+     */
+    private boolean touchCheckpoint(int platform) {
+        if (platform == startPoint) return false;
 
-                // lands on ground
-                else if (movingDown && onPlatform) {
-                    canJump = true;
-                    return;
-                }
-            }
+        setSpawn(
+                platforms.getLeft(platform) - PLATFORM_SIZE / 4,
+                platforms.getTop(platform) - PLATFORM_SIZE / 4
+        );
+        startPoint = platform;
+        particles.burst(
+                platforms.getLeft(platform) + PLATFORM_SIZE / 4, platforms.getTop(platform) + PLATFORM_SIZE / 4,
+                CHECKPOINT_PARTICLES, checkpointParticleColor
+        );
+        return true;
+    }
 
-            // update player y position
-            player.moveY(movingDown ? 1 : -1);
-        }
+    /**
+     * Finishes the level when the finish is touched.
+     *
+     * @param platform finish touched
+     * @return always true
+     */
+    private boolean touchFinish(int platform) {
+        finishedLevels[pageNavigator.top()] = true;
+        particles.burst(
+                platforms.getLeft(platform) + PLATFORM_SIZE / 2, platforms.getTop(platform) + PLATFORM_SIZE / 2,
+                FINISH_PARTICLES, finishParticleColor
+        );
+        pauseGame(PauseTypes.FINISH_PAUSE, FINISH_TEXT);
+        return true;
     }
 
     /**
-     * Makes the player fall through a plank. If the block is not a plank do not fall through.
+     * Kills the player when lava is touched, if not invincible.
+     *
+     * @param platform lava touched
+     * @return if the player was killed
      */
-    private void fallThroughPlank() {
-        for (final Rectangle platform : platforms) { // platform
-            boolean touchingPlatform = player.getBoundsInParent().intersects(platform.getBoundsInParent());
-            boolean onPlatform = player.getBottom() == platform.getTop();
-            boolean onSide = player.getRight() == platform.getLeft() || player.getLeft() == platform.getRight();
-            boolean isPlank = platform.isColor(PLANK_COLOR);
-            if (!touchingPlatform || !onPlatform || onSide || !isPlank) continue; // exit if not plank
+    private boolean touchLava(int platform) {
+        if (invincible) return false;
 
-            // fall through plank
-            player.moveY(1);
-            return;
-        }
+        playerDeath(true);
+        return true;
+    }
+
+    /**
+     * Moves the spawnpoint of the player.
+     *
+     * @param x x coordinate of the spawnpoint
+     * @param y y coordinate of the spawnpoint
+     */
+    private void setSpawn(int x, int y) {
+        spawn[0] = x;
+        spawn[1] = y;
     }
 
     /**
      * Kills the player, and sets it back to spawn.
-     * Updates the screen scrolling to match.
+     * The {@link Platformer#camera} follows when the next frame is drawn.
      *
      * @param fromLava if the death was from lava
      */
     private void playerDeath(boolean fromLava) {
+        // burst where the player died
+        if (fromLava)
+            particles.burst(
+                    player.getLeft() + PLAYER_SIZE / 2, player.getTop() + PLAYER_SIZE / 2,
+                    DEATH_PARTICLES, deathParticleColor
+            );
+
         // go to spawn point
-        player.setCoords(spawn);
+        player.setPosition(spawn[0], spawn[1]);
 
         // increment death count
         if (fromLava && isLevel())
             deathCounts[pageNavigator.top()]++;
 
-        // update x scrolling
-        int xOffset = (int) player.getTranslateX();
-        if (xOffset < WINDOW_WIDTH / 2)
-            gameLayer.setLayoutX(0);
-        else if (xOffset > levelWidth - WINDOW_WIDTH / 2)
-            gameLayer.setLayoutX(WINDOW_WIDTH - levelWidth);
-        else
-            gameLayer.setLayoutX((double) WINDOW_WIDTH / 2 - xOffset);
-
-        // update y scrolling
-        int yOffset = (int) player.getTranslateY();
-        if (yOffset < WINDOW_HEIGHT / 2)
-            gameLayer.setLayoutY(0);
-        else if (yOffset > levelHeight - WINDOW_HEIGHT / 2)
-            gameLayer.setLayoutY(WINDOW_HEIGHT - levelHeight);
-        else
-            gameLayer.setLayoutY((double) WINDOW_HEIGHT / 2 - yOffset);
     }
 
     /**
-     * Updates the game when it is paused.
+     * Updates the game when it is paused, on each key press.
      * Will exit or unpause based on key press.
      */
     private void updatePause() {
         // skip if keys are not pressed
-        if (!isPressed(INTERACT_KEY) && !isPressed(EXIT_KEY)) return;
+        if (!wasPressed(INTERACT_KEY) && !wasPressed(EXIT_KEY)) return;
 
         // reasons for pause
         boolean isFinish = pauseReason.equals(PauseTypes.FINISH_PAUSE);
         boolean isSave = pauseReason.equals(PauseTypes.SAVE_PAUSE);
 
         // exit page
-        if (isPressed(EXIT_KEY) || isFinish) {
+        if (wasPressed(EXIT_KEY) || isFinish) {
             pageNavigator.pop();
             loadLevel(pageNavigator.top(), false);
             isSave = false;
@@ -720,12 +814,12 @@ public class Platformer extends Application
         if (isSave) return;
 
         // unpause
-        pauseTimer.stop();
-        gameTimer.start();
+        paused = false;
+        resumeGame();
 
         // update display
         topLayer.clear();
-        if (isLevel()) topLayer.add(DEATHCOUNT_DISPLAY);
+        topLayer.add(hud);
     }
 
     /**
@@ -897,16 +991,24 @@ public class Platformer extends Application
         initContent();
 
         Scene scene = new Scene(appRoot);
-        scene.setOnKeyPressed(event -> keyMap.put(event.getCode(), true));
-        scene.setOnKeyReleased(event -> keyMap.put(event.getCode(), false));
+        scene.setOnKeyPressed(event -> {
+            input.press(event.getCode());
+            handleKey();
+        });
+        scene.setOnKeyReleased(event -> {
+            input.release(event.getCode());
+            handleKey();
+        });
+        stage.focusedProperty().addListener((observableValue, oldValue, newValue) -> {
+            if (!newValue) input.releaseAll();
+        });
 
         stage.setTitle("Platformer");
         stage.setResizable(false);
         stage.setScene(scene);
         stage.show();
 
-        gameTimer.start();
-        pauseTimer.stop();
+        resumeGame();
     }
 
     /**
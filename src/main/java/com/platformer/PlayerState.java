@@ -0,0 +1,165 @@
+package com.platformer;
+
+/**
+ * Physics state of the player. All values are whole pixels and pixels per tick stored as
+ * {@code int}s, so the same inputs always give the same result on any machine. The state
+ * is updated in place every tick, and the {@link Rectangle} of the player is only moved to
+ * match it when the screen is updated, between the previous and current positions.
+ */
+public class PlayerState {
+
+    /**
+     * Width and height of the player.
+     */
+    private final int size;
+
+    /**
+     * x coordinate of the left side of the player.
+     */
+    private int x;
+
+    /**
+     * y coordinate of the top side of the player.
+     */
+    private int y;
+
+    /**
+     * x coordinate of the left side of the player at the end of the previous tick.
+     */
+    private int previousX;
+
+    /**
+     * y coordinate of the top side of the player at the end of the previous tick.
+     */
+    private int previousY;
+
+    /**
+     * Velocity of the player in the y direction, positive downwards.
+     */
+    private int velocityY;
+
+    /**
+     * If the player can jump, set when the player lands on a platform.
+     */
+    private boolean canJump;
+
+    /**
+     * Creates the state of a player at the origin.
+     *
+     * @param size width and height of the player
+     */
+    public PlayerState(int size) {
+        this.size = size;
+    }
+
+    /**
+     * @return the x coordinate of the left side of the player
+     */
+    public int getLeft() {
+        return x;
+    }
+
+    /**
+     * @return the x coordinate of the right side of the player
+     */
+    public int getRight() {
+        return x + size;
+    }
+
+    /**
+     * @return the y coordinate of the top side of the player
+     */
+    public int getTop() {
+        return y;
+    }
+
+    /**
+     * @return the y coordinate of the bottom side of the player
+     */
+    public int getBottom() {
+        return y + size;
+    }
+
+    /**
+     * Teleports the player. The previous position is moved too, so the player
+     * is not drawn sliding from where it was.
+     *
+     * @param x x coordinate of the left side of the player
+     * @param y y coordinate of the top side of the player
+     */
+    public void setPosition(int x, int y) {
+        this.x = x;
+        this.y = y;
+        previousX = x;
+        previousY = y;
+    }
+
+    /**
+     * Keeps the current position as the previous position, called at the start of each tick.
+     */
+    public void savePrevious() {
+        previousX = x;
+        previousY = y;
+    }
+
+    /**
+     * @return the x coordinate of the left side of the player at the end of the previous tick
+     */
+    public int getPreviousLeft() {
+        return previousX;
+    }
+
+    /**
+     * @return the y coordinate of the top side of the player at the end of the previous tick
+     */
+    public int getPreviousTop() {
+        return previousY;
+    }
+
+    /**
+     * Moves the player by some amount in the x-axis.
+     *
+     * @param v steps to move
+     */
+    public void moveX(int v) {
+        x += v;
+    }
+
+    /**
+     * Moves the player by some amount in the y-axis.
+     *
+     * @param v steps to move
+     */
+    public void moveY(int v) {
+        y += v;
+    }
+
+    /**
+     * @return velocity of the player in the y direction
+     */
+    public int getVelocityY() {
+        return velocityY;
+    }
+
+    /**
+     * @param velocityY velocity of the player in the y direction
+     */
+    public void setVelocityY(int velocityY) {
+        this.velocityY = velocityY;
+    }
+
+    /**
+     * @return if the player can jump
+     */
+    public boolean canJump() {
+        return canJump;
+    }
+
+    /**
+     * @param canJump if the player can jump
+     */
+    public void setCanJump(boolean canJump) {
+        this.canJump = canJump;
+    }
+
+}
@@ -43,7 +43,7 @@ public class Rectangle extends javafx.scene.shape.Rectangle {
      */
     public Rectangle(int x, int y, int width, int height, Color color, char type) {
         this(width, height, color, type);
-        setCoords(new int[]{x, y});
+        setCoords(x, y);
     }
 
     /**
@@ -85,8 +85,27 @@ public class Rectangle extends javafx.scene.shape.Rectangle {
      * @param coords coordinates to set the {@link Rectangle} to
      */
     public void setCoords(int[] coords) {
-        setTranslateX(coords[0]);
-        setTranslateY(coords[1]);
+        setCoords(coords[0], coords[1]);
+    }
+
+    /**
+     * @param x x coordinate to set the {@link Rectangle} to
+     * @param y y coordinate to set the {@link Rectangle} to
+     */
+    public void setCoords(int x, int y) {
+        setTranslateX(x);
+        setTranslateY(y);
+    }
+
+    /**
+     * Sets the coordinates to a position between pixels, used to draw between two ticks.
+     *
+     * @param x x coordinate to set the {@link Rectangle} to
+     * @param y y coordinate to set the {@link Rectangle} to
+     */
+    public void setCoords(double x, double y) {
+        setTranslateX(x);
+        setTranslateY(y);
     }
 
     /**
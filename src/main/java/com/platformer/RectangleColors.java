@@ -2,7 +2,6 @@ package com.platformer;
 
 // imports
 import javafx.scene.paint.Color;
-import java.util.Set;
 
 /**
  * Constants of all {@link Rectangle} colours for the game.
@@ -34,23 +33,4 @@ public interface RectangleColors {
     Color PLANK_COLOR = Color.SADDLEBROWN;
     Color LAVA_COLOR = Color.RED;
 
-    /**
-     * {@link Set} of all colours that cannot be collided with.
-     */
-    Set<Color> NO_COLLISION_COLORS = Set.of(
-            BACKGROUND_COLOR,
-            LEVEL_SELECTION_COLOR,
-            GOTO_GAME_COLOR,
-            OPTIONS_COLOR,
-            LEVEL_COLOR,
-            BACK_COLOR,
-            SAVE_DATA_COLOR,
-            INSTRUCTIONS_COLOR,
-            LEADERBOARD_COLOR,
-            LEADERBOARD_DISPLAY_COLOR,
-            SPAWN_COLOR,
-            CHECKPOINT_COLOR,
-            FINISH_COLOR
-    );
-
 }
\ No newline at end of file
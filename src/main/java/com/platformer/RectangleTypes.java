@@ -18,7 +18,7 @@ public interface RectangleTypes {
     char SAVE_DATA_TYPE = 'D';
 
     // game elements types
-    char PLAYER_TYPE = 'p';
+    char PLAYER_TYPE = 'P';
     char START_TYPE = 's';
     char CHECKPOINT_TYPE = 'c';
     char FINISH_TYPE = 'f';
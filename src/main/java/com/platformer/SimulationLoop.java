@@ -0,0 +1,212 @@
+package com.platformer;
+
+// imports
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a simulation at a fixed rate on its own thread, so rendering and input handling on the
+ * JavaFX Application Thread never delay it, and the other way around. Ticks are scheduled one
+ * tick length apart, and a thread that falls behind runs at most a set number of ticks to catch
+ * up before dropping the time it is missing.
+ * <p>
+ * The simulation state belongs to the loop thread while the loop is running, and to whichever
+ * thread stopped it while it is stopped. Stopping from another thread waits for the tick being
+ * run to finish, so the state can be changed safely until the loop is started again. Ticks are
+ * run outside the monitor of the loop, so starting and waking it never wait for a tick.
+ * <p>
+ * A tick that reports nothing can change until new input arrives puts the loop to sleep without
+ * using the processor, until {@link SimulationLoop#wake()} is called.
+ */
+public abstract class SimulationLoop {
+
+    /**
+     * Name of the thread.
+     */
+    private final String name;
+
+    /**
+     * Length of a tick in nanoseconds.
+     */
+    private final long tickNanos;
+
+    /**
+     * Most ticks run back to back to catch up.
+     */
+    private final int maxCatchUpTicks;
+
+    /**
+     * Thread running the ticks, created when first started.
+     */
+    private Thread thread;
+
+    /**
+     * If ticks are being run. Changed while holding the monitor of the loop.
+     */
+    private volatile boolean running;
+
+    /**
+     * If the loop is sleeping until woken. Changed while holding the monitor of the loop.
+     */
+    private volatile boolean idle;
+
+    /**
+     * If the loop thread is running ticks. Guarded by the monitor of the loop.
+     */
+    private boolean ticking;
+
+    /**
+     * If the loop was woken while running ticks, so it must not go to sleep after them.
+     * Guarded by the monitor of the loop.
+     */
+    private boolean woken;
+
+    /**
+     * If the next tick is due right away, after starting or waking. Guarded by the monitor of the loop.
+     */
+    private boolean restart;
+
+    /**
+     * Time in nanoseconds of the next tick. Only used by the loop thread.
+     */
+    private long nextTick;
+
+    /**
+     * Creates a stopped {@link SimulationLoop}.
+     *
+     * @param name name of the thread
+     * @param tickRate ticks per second
+     * @param maxCatchUpTicks most ticks run back to back to catch up
+     */
+    public SimulationLoop(String name, int tickRate, int maxCatchUpTicks) {
+        this.name = name;
+        this.tickNanos = 1_000_000_000L / tickRate;
+        this.maxCatchUpTicks = maxCatchUpTicks;
+    }
+
+    /**
+     * @return length of a tick in nanoseconds
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Starts running ticks, with the first tick right away.
+     */
+    public synchronized void start() {
+        if (running) return;
+
+        running = true;
+        idle = false;
+        restart = true;
+        if (thread == null) {
+            thread = new Thread(this::run, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        notifyAll();
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Stops running ticks. If called during a tick, the tick finishes and no more are run.
+     * If called from another thread, waits for the tick being run to finish.
+     *
+     * @return if the loop was running
+     */
+    public synchronized boolean stop() {
+        boolean wasRunning = running;
+        running = false;
+
+        // wait for the tick being run, unless stopped by the tick itself
+        while (ticking && Thread.currentThread() != thread) {
+            try { wait(); }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return wasRunning;
+    }
+
+    /**
+     * Wakes the loop if it is sleeping, with the next tick right away.
+     */
+    public synchronized void wake() {
+        if (!running) return;
+
+        // woken while running ticks, the loop checks this before sleeping
+        if (!idle) {
+            woken = true;
+            return;
+        }
+
+        idle = false;
+        restart = true;
+        notifyAll();
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * @return if the loop is running and not sleeping
+     */
+    public boolean isActive() {
+        return running && !idle;
+    }
+
+    /**
+     * Runs one tick of the simulation, on the loop thread.
+     *
+     * @param time scheduled time of the tick in nanoseconds, from {@link System#nanoTime()}
+     * @return if the next tick could change anything without new input, otherwise the loop sleeps
+     */
+    protected abstract boolean tick(long time);
+
+    /**
+     * Body of the loop thread. Runs the ticks that are due, then sleeps until the next one.
+     * Only starting and finishing a batch of ticks holds the monitor of the loop.
+     */
+    private void run() {
+        while (true) {
+            synchronized (this) {
+                // sleep while stopped or idle
+                while (!running || idle) {
+                    try { wait(); }
+                    catch (InterruptedException e) { return; }
+                }
+                ticking = true;
+                woken = false;
+                if (restart) {
+                    nextTick = System.nanoTime();
+                    restart = false;
+                }
+            }
+
+            // run ticks that are due, dropping time beyond the catch up limit
+            long now = System.nanoTime();
+            boolean changing = true;
+            int ticks = 0;
+            while (running && changing && now - nextTick >= 0) {
+                if (ticks == maxCatchUpTicks) {
+                    nextTick = now + tickNanos;
+                    break;
+                }
+                changing = tick(nextTick);
+                nextTick += tickNanos;
+                ticks++;
+            }
+
+            long wait;
+            synchronized (this) {
+                // sleep if nothing can change, unless woken by new input during the ticks
+                if (!changing && !woken)
+                    idle = true;
+                ticking = false;
+                notifyAll();
+                wait = nextTick - System.nanoTime();
+            }
+            if (wait > 0) LockSupport.parkNanos(this, wait);
+        }
+    }
+
+}
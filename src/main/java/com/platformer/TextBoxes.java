@@ -1,7 +1,6 @@
 package com.platformer;
 
 // imports
-import javafx.util.Pair;
 import static com.platformer.GameValues.PLATFORM_SIZE;
 import static com.platformer.RectangleColors.*;
 import static com.platformer.RectangleTypes.UNINTERACTABLE_TYPE;
@@ -154,42 +153,4 @@ public interface TextBoxes {
             ),
     };
 
-    /**
-     * Default method that takes a 2D array of {@link Pair}s and creates
-     * an array of {@link TextRectangle}s matching the leaderboard.
-     *
-     * @param leaderboard leaderboard data
-     * @return {@link TextRectangle}s to display
-     */
-    default TextRectangle[] LEADERBOARD(Pair<String, Integer>[][] leaderboard) {
-        // initalize values
-        TextRectangle[] textBoxes = new TextRectangle[60];
-        int i = 0;
-        for (int levelNum = 1; levelNum < 10; levelNum++) {
-            int x = 60 + levelNum * 15 + (levelNum - 1) * 120;
-            textBoxes[i++] = new TextRectangle( // level number display
-                    x, 210,
-                    120, 30,
-                    LEADERBOARD_DISPLAY_COLOR, UNINTERACTABLE_TYPE,
-                    "Level " + levelNum, true
-            );
-
-            // top scores display
-            for (int placement = 0; placement < 5; placement++) {
-                int deaths = leaderboard[levelNum][placement].getValue();
-                if (deaths == Integer.MAX_VALUE) break; // do not display if default value
-                textBoxes[i++] = new TextRectangle(
-                        x, 240 + 20 * placement,
-                        120, 20,
-                        LEADERBOARD_DISPLAY_COLOR, UNINTERACTABLE_TYPE,
-                        leaderboard[levelNum][placement].getKey() + ": " + deaths, false
-                );
-            }
-        }
-
-        TextRectangle[] trimmed = new TextRectangle[i];
-        System.arraycopy(textBoxes, 0, trimmed, 0, i);
-        return trimmed;
-    }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package com.platformer;
+
+/**
+ * Action run when the player touches a platform, registered for a kind of tile in the {@link TileRegistry}.
+ */
+@FunctionalInterface
+public interface TileAction {
+
+    /**
+     * Runs the action of a platform being touched.
+     *
+     * @param platform index of the platform in the {@link LevelGeometry}
+     * @return if the player interacted with the platform
+     */
+    boolean interact(int platform);
+
+}
@@ -0,0 +1,290 @@
+package com.platformer;
+
+// imports
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.ImagePattern;
+import javafx.scene.paint.Paint;
+import java.util.Arrays;
+
+import static com.platformer.GameValues.PLATFORM_SIZE;
+
+/**
+ * Animates the tiles of a few kinds, like lava, checkpoints, and the finish, with one shared
+ * clock. Every tile of an animated kind has an overlay drawn over its static tile, and the
+ * overlays of a kind are kept in their own {@link CullingLayer}, so tiles away from the camera
+ * have no node. The overlays never change once created. Instead, each frame the clock moves one
+ * shared property of each kind: the opacity of the layer for a pulse, and the position of a
+ * striped {@link Rectangle} clipped to the layer for a flow. The cost of a frame grows with the
+ * number of animated kinds, not the number of tiles on screen.
+ */
+public class TileAnimator {
+
+    /**
+     * Length of the stripes of a flow before they repeat, two tiles wide.
+     */
+    public static final int STRIPE_LENGTH = PLATFORM_SIZE * 2;
+
+    /**
+     * Node holding the node of each animated kind.
+     */
+    private final Group root = new Group();
+
+    /**
+     * Index of the animation of each symbol, or {@code -1} if not animated.
+     */
+    private final byte[] animationOfSymbol = new byte[128];
+
+    /**
+     * Overlays of the tiles of each animation near the camera.
+     */
+    private CullingLayer[] layers = new CullingLayer[0];
+
+    /**
+     * Symbol of each animation.
+     */
+    private char[] types = new char[0];
+
+    /**
+     * Fill of the overlays of each animation. The glow of a pulse, or an opaque mask for a flow.
+     */
+    private Color[] fills = new Color[0];
+
+    /**
+     * Position and size of the tiles of each animation, as x, y, width, and height.
+     */
+    private int[][] boxes = new int[0][];
+
+    /**
+     * Striped {@link Rectangle} moved by each flow, or {@code null} for a pulse.
+     */
+    private Rectangle[] stripes = new Rectangle[0];
+
+    /**
+     * Nanoseconds each animation takes to repeat.
+     */
+    private long[] periods = new long[0];
+
+    /**
+     * Position of the viewport, as x and y.
+     */
+    private final double[] viewport = new double[2];
+
+    /**
+     * Creates a {@link TileAnimator} without animations.
+     */
+    public TileAnimator() {
+        Arrays.fill(animationOfSymbol, (byte) -1);
+    }
+
+    /**
+     * Animates the tiles of a kind with a glow pulsing in and out.
+     *
+     * @param type symbol of the kind
+     * @param color colour of the glow
+     * @param opacity opacity of the glow at its brightest
+     * @param period seconds taken by one pulse
+     */
+    public void pulse(char type, Color color, double opacity, double period) {
+        Color glow = Color.color(color.getRed(), color.getGreen(), color.getBlue(), opacity);
+        CullingLayer layer = register(type, glow, null, period);
+        root.getChildren().add(layer);
+    }
+
+    /**
+     * Animates the tiles of a kind with stripes flowing to the right. The stripes line up
+     * across every tile, so a run of tiles flows as one.
+     *
+     * @param type symbol of the kind
+     * @param paint stripes, repeating every {@link TileAnimator#STRIPE_LENGTH} pixels
+     * @param period seconds taken by the stripes to move {@link TileAnimator#STRIPE_LENGTH} pixels
+     */
+    public void flow(char type, Paint paint, double period) {
+        Rectangle stripe = new Rectangle(0, 0, Color.TRANSPARENT, type);
+        stripe.setFill(paint);
+        stripe.setMouseTransparent(true);
+        CullingLayer layer = register(type, Color.BLACK, stripe, period);
+
+        // the stripes are only drawn inside the overlays
+        Group flow = new Group(stripe);
+        flow.setClip(layer);
+        root.getChildren().add(flow);
+    }
+
+    /**
+     * @param type symbol of the tile
+     * @return if tiles of the kind are animated
+     */
+    public boolean isAnimated(char type) {
+        return type < animationOfSymbol.length && animationOfSymbol[type] >= 0;
+    }
+
+    /**
+     * @return the node displaying the overlays, added to the game layer above the tiles
+     */
+    public Node getNode() {
+        return root;
+    }
+
+    /**
+     * Removes all tiles, before a level is loaded.
+     */
+    public void clear() {
+        for (CullingLayer layer : layers)
+            layer.clear();
+    }
+
+    /**
+     * Adds a tile of an animated kind.
+     *
+     * @param x x coordinate of the tile
+     * @param y y coordinate of the tile
+     * @param width width of the tile
+     * @param height height of the tile
+     * @param type symbol of the tile
+     */
+    public void add(int x, int y, int width, int height, char type) {
+        int animation = animationOfSymbol[type];
+        int tile = layers[animation].add(x, y, width, height);
+        if (tile * 4 == boxes[animation].length)
+            boxes[animation] = Arrays.copyOf(boxes[animation], tile * 2 * 4);
+
+        boxes[animation][tile * 4] = x;
+        boxes[animation][tile * 4 + 1] = y;
+        boxes[animation][tile * 4 + 2] = width;
+        boxes[animation][tile * 4 + 3] = height;
+    }
+
+    /**
+     * Indexes the tiles, once every tile of the level is added.
+     *
+     * @param width width of the level
+     * @param height height of the level
+     */
+    public void finish(int width, int height) {
+        for (CullingLayer layer : layers)
+            layer.finish(width, height);
+    }
+
+    /**
+     * Keeps only the overlays near the viewport, and sizes the stripes to cover it.
+     *
+     * @param left x coordinate of the left side of the viewport in the level
+     * @param top y coordinate of the top side of the viewport in the level
+     * @param width width of the viewport
+     * @param height height of the viewport
+     */
+    public void setViewport(double left, double top, double width, double height) {
+        viewport[0] = left;
+        viewport[1] = top;
+        for (int animation = 0; animation < layers.length; animation++) {
+            layers[animation].setViewport(left, top, width, height);
+
+            // one repeat of the stripes more on each side, so moving them leaves no gap
+            if (stripes[animation] != null) {
+                stripes[animation].setWidth(Math.ceil(width) + 2 * STRIPE_LENGTH);
+                stripes[animation].setHeight(Math.ceil(height) + 2 * PLATFORM_SIZE);
+            }
+        }
+    }
+
+    /**
+     * @return if any animated tile is near the camera, so frames must keep being drawn
+     */
+    public boolean isAnimating() {
+        for (CullingLayer layer : layers)
+            if (!layer.getChildren().isEmpty())
+                return true;
+        return false;
+    }
+
+    /**
+     * Moves the shared clock, and the one shared property of each kind.
+     *
+     * @param now time of the frame, in nanoseconds
+     */
+    public void update(long now) {
+        for (int animation = 0; animation < layers.length; animation++) {
+            double phase = (double) (now % periods[animation]) / periods[animation];
+
+            // glow pulsing in and out
+            if (stripes[animation] == null) {
+                layers[animation].setOpacity((1 - Math.cos(2 * Math.PI * phase)) / 2);
+                continue;
+            }
+
+            // stripes lined up with the level, starting a repeat before the viewport
+            double left = (Math.floor(viewport[0] / STRIPE_LENGTH) - 1) * STRIPE_LENGTH;
+            double top = (Math.floor(viewport[1] / PLATFORM_SIZE) - 1) * PLATFORM_SIZE;
+            stripes[animation].setCoords(left + Math.floor(phase * STRIPE_LENGTH), top);
+        }
+    }
+
+    /**
+     * Makes the stripes of a flow, diagonal and repeating every {@link TileAnimator#STRIPE_LENGTH} pixels.
+     *
+     * @param color colour of the stripes
+     * @param opacity opacity of the stripes
+     * @return paint of the stripes
+     */
+    public static Paint stripes(Color color, double opacity) {
+        WritableImage image = new WritableImage(STRIPE_LENGTH, PLATFORM_SIZE);
+        PixelWriter writer = image.getPixelWriter();
+        Color stripe = Color.color(color.getRed(), color.getGreen(), color.getBlue(), opacity);
+        for (int y = 0; y < PLATFORM_SIZE; y++)
+            for (int x = 0; x < STRIPE_LENGTH; x++)
+                writer.setColor(x, y, (x + y) % PLATFORM_SIZE < PLATFORM_SIZE / 3 ? stripe : Color.TRANSPARENT);
+        return new ImagePattern(image, 0, 0, STRIPE_LENGTH, PLATFORM_SIZE, false);
+    }
+
+    /**
+     * Adds an animated kind with its own layer of overlays.
+     *
+     * @param type symbol of the kind
+     * @param fill fill of the overlays
+     * @param stripe striped {@link Rectangle} of a flow, or {@code null} for a pulse
+     * @param period seconds taken to repeat
+     * @return layer of the overlays of the kind
+     */
+    private CullingLayer register(char type, Color fill, Rectangle stripe, double period) {
+        int animation = layers.length;
+        layers = Arrays.copyOf(layers, animation + 1);
+        types = Arrays.copyOf(types, animation + 1);
+        fills = Arrays.copyOf(fills, animation + 1);
+        boxes = Arrays.copyOf(boxes, animation + 1);
+        stripes = Arrays.copyOf(stripes, animation + 1);
+        periods = Arrays.copyOf(periods, animation + 1);
+
+        CullingLayer layer = new CullingLayer();
+        layer.setFactory(tile -> createOverlay(animation, tile));
+        layers[animation] = layer;
+        types[animation] = type;
+        fills[animation] = fill;
+        boxes[animation] = new int[64 * 4];
+        stripes[animation] = stripe;
+        periods[animation] = (long) (period * 1e9);
+        animationOfSymbol[type] = (byte) animation;
+        return layer;
+    }
+
+    /**
+     * Creates the overlay of a tile, when it comes near the camera.
+     *
+     * @param animation index of the animation of the tile
+     * @param tile index of the tile in the layer of the animation
+     * @return overlay of the tile
+     */
+    private Node createOverlay(int animation, int tile) {
+        int[] box = boxes[animation];
+        Rectangle overlay = new Rectangle(
+                box[tile * 4], box[tile * 4 + 1], box[tile * 4 + 2], box[tile * 4 + 3],
+                fills[animation], types[animation]
+        );
+        overlay.setMouseTransparent(true);
+        return overlay;
+    }
+
+}
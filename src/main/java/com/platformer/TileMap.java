@@ -0,0 +1,166 @@
+package com.platformer;
+
+// imports
+import static com.platformer.GameValues.PLATFORM_SIZE;
+
+/**
+ * Packed bitsets of the tiles in a level, compiled from the level strings in
+ * {@link GameLevels#PAGES}. Each tile class has its own {@code long[]}, with one bit per
+ * tile stored row by row, so checking a tile is a shift and a mask instead of a lookup on
+ * the colour of a platform.
+ */
+public class TileMap {
+
+    // tile classes
+    public static final int SOLID = 0; // blocks the player
+    public static final int PLANK = 1; // can be jumped through from below
+    public static final int HAZARD = 2; // kills the player
+    public static final int TRIGGER = 3; // spawn, checkpoint, finish, and buttons
+
+    /**
+     * Number of tile classes.
+     */
+    private static final int CLASSES = 4;
+
+    /**
+     * Number of columns of tiles.
+     */
+    private final int columns;
+
+    /**
+     * Number of rows of tiles.
+     */
+    private final int rows;
+
+    /**
+     * Bitset of each tile class. The bit of a tile is at {@code row * columns + column}.
+     */
+    private final long[][] bits;
+
+    /**
+     * Compiles the tiles of a level into bitsets, using the behaviour flags in the {@link TileRegistry}.
+     *
+     * @param level rows of the level
+     * @param tiles registry of the kinds of tiles
+     */
+    public TileMap(String[] level, TileRegistry tiles) {
+        rows = level.length;
+        columns = rows == 0 ? 0 : level[0].length();
+        bits = new long[CLASSES][(rows * columns + 63) >>> 6];
+
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int index = row * columns + column;
+                int kind = tiles.kindOf(level[row].charAt(column));
+                if (kind < 0) continue;
+
+                if (tiles.is(kind, TileRegistry.SOLID)) set(SOLID, index);
+                if (tiles.is(kind, TileRegistry.ONE_WAY)) set(PLANK, index);
+                if (tiles.is(kind, TileRegistry.HAZARD)) set(HAZARD, index);
+                if (tiles.is(kind, TileRegistry.TRIGGER | TileRegistry.BUTTON)) set(TRIGGER, index);
+            }
+        }
+    }
+
+    /**
+     * @return number of columns of tiles
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return number of rows of tiles
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Checks if a tile is of a class. Tiles outside the level are empty.
+     *
+     * @param tileClass class of tile
+     * @param column column of the tile
+     * @param row row of the tile
+     * @return if the tile is of the class
+     */
+    public boolean has(int tileClass, int column, int row) {
+        if (column < 0 || column >= columns || row < 0 || row >= rows) return false;
+        int index = row * columns + column;
+        return (bits[tileClass][index >>> 6] & 1L << index) != 0;
+    }
+
+    /**
+     * Checks if any tile of a class is in part of a row. Since the bits of a row are
+     * next to each other, whole words are checked at once.
+     *
+     * @param tileClass class of tile
+     * @param row row of the tiles
+     * @param column0 first column, inclusive
+     * @param column1 last column, inclusive
+     * @return if any tile in the span is of the class
+     */
+    public boolean anyInSpan(int tileClass, int row, int column0, int column1) {
+        if (row < 0 || row >= rows) return false;
+        column0 = Math.max(column0, 0);
+        column1 = Math.min(column1, columns - 1);
+        if (column0 > column1) return false;
+
+        long[] words = bits[tileClass];
+        int from = row * columns + column0, to = row * columns + column1;
+        int fromWord = from >>> 6, toWord = to >>> 6;
+        long fromMask = -1L << from, toMask = -1L >>> (63 - (to & 63));
+        if (fromWord == toWord) return (words[fromWord] & fromMask & toMask) != 0;
+
+        if ((words[fromWord] & fromMask) != 0) return true;
+        for (int word = fromWord + 1; word < toWord; word++)
+            if (words[word] != 0) return true;
+        return (words[toWord] & toMask) != 0;
+    }
+
+    /**
+     * Checks if any tile of a class is in a rectangle of tiles.
+     *
+     * @param tileClass class of tile
+     * @param column0 first column, inclusive
+     * @param row0 first row, inclusive
+     * @param column1 last column, inclusive
+     * @param row1 last row, inclusive
+     * @return if any tile in the rectangle is of the class
+     */
+    public boolean anyInRect(int tileClass, int column0, int row0, int column1, int row1) {
+        for (int row = Math.max(row0, 0); row <= Math.min(row1, rows - 1); row++)
+            if (anyInSpan(tileClass, row, column0, column1)) return true;
+        return false;
+    }
+
+    /**
+     * Checks if any tile of a class could touch a box given in pixels. Edges count
+     * as touching, so the tiles one pixel to the left and above are included.
+     *
+     * @param tileClass class of tile
+     * @param left x coordinate of the left side of the box
+     * @param top y coordinate of the top side of the box
+     * @param right x coordinate of the right side of the box
+     * @param bottom y coordinate of the bottom side of the box
+     * @return if any tile touching the box is of the class
+     */
+    public boolean anyInBox(int tileClass, int left, int top, int right, int bottom) {
+        return anyInRect(
+                tileClass,
+                Math.floorDiv(left - 1, PLATFORM_SIZE), Math.floorDiv(top - 1, PLATFORM_SIZE),
+                Math.floorDiv(right, PLATFORM_SIZE), Math.floorDiv(bottom, PLATFORM_SIZE)
+        );
+    }
+
+    /**
+     * Sets the bit of a tile.
+     *
+     * @param tileClass class of tile
+     * @param index index of the tile
+     */
+    private void set(int tileClass, int index) {
+        bits[tileClass][index >>> 6] |= 1L << index;
+    }
+
+}
@@ -0,0 +1,206 @@
+package com.platformer;
+
+// imports
+import static com.platformer.RectangleTypes.*;
+
+/**
+ * Load-time pass that merges the tiles of a level into as few boxes as possible. Ground
+ * tiles are merged into rectangles, and thin ground, planks, and lava into runs along a row.
+ * Ground tiles that are completely surrounded by ground can never be touched by the player,
+ * so they are merged separately and marked as interior, letting them be drawn without being
+ * added to the physics.
+ */
+public class TileMesher {
+
+    /**
+     * Marks a ground tile that is surrounded by ground.
+     */
+    private static final char INTERIOR = 0;
+
+    /**
+     * Number of boxes.
+     */
+    private int size;
+
+    /**
+     * Type of each box.
+     */
+    private final char[] type;
+
+    /**
+     * First column of each box.
+     */
+    private final int[] column;
+
+    /**
+     * First row of each box.
+     */
+    private final int[] row;
+
+    /**
+     * Number of columns of each box.
+     */
+    private final int[] columns;
+
+    /**
+     * Number of rows of each box.
+     */
+    private final int[] rows;
+
+    /**
+     * If each box is made of interior ground tiles.
+     */
+    private final boolean[] interior;
+
+    /**
+     * Merges the tiles of a level. Each box is grown as far right as it can,
+     * and then as far down as the whole width allows.
+     *
+     * @param level rows of the level
+     */
+    public TileMesher(String[] level) {
+        int levelRows = level.length;
+        int levelColumns = levelRows == 0 ? 0 : level[0].length();
+        int tiles = levelRows * levelColumns;
+        type = new char[tiles];
+        column = new int[tiles];
+        row = new int[tiles];
+        columns = new int[tiles];
+        rows = new int[tiles];
+        interior = new boolean[tiles];
+
+        // find what each tile is merged as
+        char[] keys = new char[tiles];
+        for (int r = 0; r < levelRows; r++)
+            for (int c = 0; c < levelColumns; c++)
+                keys[r * levelColumns + c] = key(level, r, c);
+
+        // merge tiles with the same key
+        boolean[] used = new boolean[tiles];
+        for (int r = 0; r < levelRows; r++) {
+            for (int c = 0; c < levelColumns; c++) {
+                char key = keys[r * levelColumns + c];
+                if (used[r * levelColumns + c] || (key != INTERIOR && !isMeshed(key))) continue;
+
+                // grow right
+                int width = 1;
+                while (c + width < levelColumns
+                        && keys[r * levelColumns + c + width] == key
+                        && !used[r * levelColumns + c + width])
+                    width++;
+
+                // grow down, only ground can span rows
+                int height = 1;
+                boolean canGrow = key == GROUND_TYPE || key == INTERIOR;
+                while (canGrow && r + height < levelRows) {
+                    for (int i = 0; i < width && canGrow; i++) {
+                        int index = (r + height) * levelColumns + c + i;
+                        canGrow = keys[index] == key && !used[index];
+                    }
+                    if (canGrow) height++;
+                }
+
+                // save box
+                for (int j = 0; j < height; j++)
+                    for (int i = 0; i < width; i++)
+                        used[(r + j) * levelColumns + c + i] = true;
+                type[size] = key == INTERIOR ? GROUND_TYPE : key;
+                column[size] = c;
+                row[size] = r;
+                columns[size] = width;
+                rows[size] = height;
+                interior[size] = key == INTERIOR;
+                size++;
+            }
+        }
+    }
+
+    /**
+     * Checks if tiles of a type are merged by the {@link TileMesher}.
+     *
+     * @param type type of tile
+     * @return if the type is merged
+     */
+    public static boolean isMeshed(char type) {
+        return type == GROUND_TYPE || type == THIN_GROUND_TYPE || type == PLANK_TYPE || type == LAVA_TYPE;
+    }
+
+    /**
+     * @return number of boxes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param box index of box
+     * @return type of the tiles in the box
+     */
+    public char getType(int box) {
+        return type[box];
+    }
+
+    /**
+     * @param box index of box
+     * @return first column of the box
+     */
+    public int getColumn(int box) {
+        return column[box];
+    }
+
+    /**
+     * @param box index of box
+     * @return first row of the box
+     */
+    public int getRow(int box) {
+        return row[box];
+    }
+
+    /**
+     * @param box index of box
+     * @return number of columns of the box
+     */
+    public int getColumns(int box) {
+        return columns[box];
+    }
+
+    /**
+     * @param box index of box
+     * @return number of rows of the box
+     */
+    public int getRows(int box) {
+        return rows[box];
+    }
+
+    /**
+     * @param box index of box
+     * @return if the box is made of ground tiles that cannot be touched
+     */
+    public boolean isInterior(int box) {
+        return interior[box];
+    }
+
+    /**
+     * Finds what a tile is merged as. Ground tiles with ground on all eight sides are
+     * interior, and tiles outside the level count as ground.
+     *
+     * @param level rows of the level
+     * @param r row of the tile
+     * @param c column of the tile
+     * @return key of the tile
+     */
+    private static char key(String[] level, int r, int c) {
+        char tile = level[r].charAt(c);
+        if (tile != GROUND_TYPE) return tile;
+
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                int nr = r + dr, nc = c + dc;
+                boolean outside = nr < 0 || nr >= level.length || nc < 0 || nc >= level[nr].length();
+                if (!outside && level[nr].charAt(nc) != GROUND_TYPE) return GROUND_TYPE;
+            }
+        }
+        return INTERIOR;
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.platformer;
+
+/**
+ * Draws each box of a level as it is loaded by {@link LevelPhysics#load(String[], TilePlacer)}.
+ */
+@FunctionalInterface
+public interface TilePlacer {
+
+    /**
+     * Draws a box of a level.
+     *
+     * @param kind kind of tile in the {@link TileRegistry}
+     * @param type type of tile
+     * @param left x coordinate of the left side of the box
+     * @param top y coordinate of the top side of the box
+     * @param width width of the box
+     * @param height height of the box
+     * @return view of the box, kept in the {@link LevelGeometry}
+     */
+    int place(int kind, char type, int left, int top, int width, int height);
+
+}
@@ -0,0 +1,201 @@
+package com.platformer;
+
+// imports
+import javafx.scene.paint.Color;
+import java.util.Arrays;
+
+/**
+ * Registry of every kind of tile that can appear in {@link GameLevels#PAGES}. Each kind is
+ * given a compact ordinal when registered, and its symbol, colour, shape, behaviour flags,
+ * and {@link TileAction} are stored in arrays indexed by that ordinal. Checking what a
+ * platform does is one array lookup, and a new kind of tile only needs a new entry.
+ */
+public class TileRegistry {
+
+    // behaviour flags
+    public static final int SOLID = 1; // blocks the player
+    public static final int ONE_WAY = 1 << 1; // can be jumped through from below
+    public static final int HAZARD = 1 << 2; // kills the player
+    public static final int TRIGGER = 1 << 3; // acts when touched
+    public static final int BUTTON = 1 << 4; // acts when touched and interacted with
+
+    /**
+     * Number of kinds registered.
+     */
+    private int size;
+
+    /**
+     * Ordinal of the kind of each symbol, or {@code -1} if none.
+     */
+    private final byte[] kindOfSymbol = new byte[128];
+
+    /**
+     * Symbol of each kind.
+     */
+    private char[] symbols = new char[0];
+
+    /**
+     * Colour of each kind.
+     */
+    private Color[] colors = new Color[0];
+
+    /**
+     * Behaviour flags of each kind.
+     */
+    private int[] flags = new int[0];
+
+    /**
+     * Shape of each kind, as x offset, y offset, width, and height in a tile.
+     * Buttons use the width only.
+     */
+    private int[][] shapes = new int[0][];
+
+    /**
+     * Text displayed on each kind, or {@code null} if not a button.
+     */
+    private String[] labels = new String[0];
+
+    /**
+     * Action of each kind, or {@code null} if none.
+     */
+    private TileAction[] actions = new TileAction[0];
+
+    /**
+     * Creates an empty {@link TileRegistry}.
+     */
+    public TileRegistry() {
+        Arrays.fill(kindOfSymbol, (byte) -1);
+    }
+
+    /**
+     * Registers a kind of block, drawn as a coloured rectangle in its tile.
+     *
+     * @param symbol symbol of the block in the level data
+     * @param color colour of the block
+     * @param flags behaviour flags of the block
+     * @param x x offset of the block in its tile
+     * @param y y offset of the block in its tile
+     * @param width width of the block
+     * @param height height of the block
+     * @param action action when touched, or {@code null} if none
+     * @return ordinal of the kind
+     */
+    public int registerBlock(char symbol, Color color, int flags, int x, int y, int width, int height, TileAction action) {
+        return register(symbol, color, flags, new int[]{x, y, width, height}, null, action);
+    }
+
+    /**
+     * Registers a kind of button, drawn as a {@link TextRectangle} centred on its tile.
+     *
+     * @param symbol symbol of the button in the level data
+     * @param color colour of the button
+     * @param width width of the button
+     * @param label text on the button
+     * @param press action when pressed
+     * @return ordinal of the kind
+     */
+    public int registerButton(char symbol, Color color, int width, String label, Runnable press) {
+        return register(symbol, color, BUTTON, new int[]{0, 0, width, 0}, label, platform -> {
+            press.run();
+            return true;
+        });
+    }
+
+    /**
+     * @return number of kinds registered
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param symbol symbol in the level data
+     * @return ordinal of the kind, or {@code -1} if the symbol is not registered
+     */
+    public int kindOf(char symbol) {
+        return symbol < kindOfSymbol.length ? kindOfSymbol[symbol] : -1;
+    }
+
+    /**
+     * @param kind ordinal of kind
+     * @param flag behaviour flag
+     * @return if the kind has the flag
+     */
+    public boolean is(int kind, int flag) {
+        return (flags[kind] & flag) != 0;
+    }
+
+    /**
+     * @param kind ordinal of kind
+     * @return symbol of the kind
+     */
+    public char getSymbol(int kind) {
+        return symbols[kind];
+    }
+
+    /**
+     * @param kind ordinal of kind
+     * @return colour of the kind
+     */
+    public Color getColor(int kind) {
+        return colors[kind];
+    }
+
+    /**
+     * @param kind ordinal of kind
+     * @return shape of the kind, as x offset, y offset, width, and height
+     */
+    public int[] getShape(int kind) {
+        return shapes[kind];
+    }
+
+    /**
+     * @param kind ordinal of kind
+     * @return text on the kind, or {@code null} if not a button
+     */
+    public String getLabel(int kind) {
+        return labels[kind];
+    }
+
+    /**
+     * @param kind ordinal of kind
+     * @return action of the kind, or {@code null} if none
+     */
+    public TileAction getAction(int kind) {
+        return actions[kind];
+    }
+
+    /**
+     * Adds a kind to the end of the arrays.
+     *
+     * @param symbol symbol in the level data
+     * @param color colour
+     * @param flags behaviour flags
+     * @param shape shape in a tile
+     * @param label text on a button
+     * @param action action when touched
+     * @return ordinal of the kind
+     * @throws IllegalArgumentException if the symbol is already registered or out of range
+     */
+    private int register(char symbol, Color color, int flags, int[] shape, String label, TileAction action) {
+        if (kindOf(symbol) != -1 || symbol >= kindOfSymbol.length || size == Byte.MAX_VALUE)
+            throw new IllegalArgumentException("Cannot register tile: " + symbol);
+
+        symbols = Arrays.copyOf(symbols, size + 1);
+        colors = Arrays.copyOf(colors, size + 1);
+        this.flags = Arrays.copyOf(this.flags, size + 1);
+        shapes = Arrays.copyOf(shapes, size + 1);
+        labels = Arrays.copyOf(labels, size + 1);
+        actions = Arrays.copyOf(actions, size + 1);
+
+        symbols[size] = symbol;
+        colors[size] = color;
+        this.flags[size] = flags;
+        shapes[size] = shape;
+        labels[size] = label;
+        actions[size] = action;
+        kindOfSymbol[symbol] = (byte) size;
+        return size++;
+    }
+
+}
@@ -0,0 +1,281 @@
+package com.platformer;
+
+// imports
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import java.util.Arrays;
+
+import static com.platformer.GameValues.PLATFORM_SIZE;
+import static com.platformer.GameValues.PLAYER_SIZE;
+
+/**
+ * Texture atlas of the tiles and the player, generated once at startup. Each kind of block has
+ * one row of sixteen regions, one for each mask of the neighbours that have the same symbol in
+ * {@link GameLevels#PAGES}. A region shades the sides of the block with no matching neighbour,
+ * and is transparent elsewhere, so it is drawn over the fill of a tile of any colour. The last
+ * row holds the player.
+ * <p>
+ * A tile is drawn with one fill of its colour, and the region of each cell on its edge with a
+ * side to shade. Cells inside a merged box always have all their neighbours, so the ground of
+ * a level costs no more to draw than before.
+ */
+public class TileSprites {
+
+    // neighbour bits, set when the neighbour has the same symbol
+    public static final int UP = 1;
+    public static final int RIGHT = 1 << 1;
+    public static final int DOWN = 1 << 2;
+    public static final int LEFT = 1 << 3;
+
+    /**
+     * Mask of a cell with every neighbour, which has nothing to shade.
+     */
+    private static final int ALL = UP | RIGHT | DOWN | LEFT;
+
+    /**
+     * Width of the shading on a side.
+     */
+    private static final int BEVEL = 3;
+
+    /**
+     * Colour of the shading on the top and left sides.
+     */
+    private static final int LIGHT = 0x59FFFFFF;
+
+    /**
+     * Colour of the shading on the bottom and right sides.
+     */
+    private static final int DARK = 0x59000000;
+
+    /**
+     * Atlas row of each symbol, or {@code -1} if none.
+     */
+    private final byte[] rowOfSymbol = new byte[128];
+
+    /**
+     * Image of the atlas.
+     */
+    private WritableImage atlas;
+
+    /**
+     * Reads the pixels of the {@link TileSprites#atlas}.
+     */
+    private PixelReader reader;
+
+    /**
+     * Image of the player, copied from its region of the atlas.
+     */
+    private Image player;
+
+    /**
+     * Number of columns of the level.
+     */
+    private int columns;
+
+    /**
+     * Number of rows of the level.
+     */
+    private int rows;
+
+    /**
+     * Neighbour mask of each cell of the level, row by row.
+     */
+    private byte[] masks = new byte[0];
+
+    /**
+     * Creates an empty {@link TileSprites}.
+     */
+    public TileSprites() {
+        Arrays.fill(rowOfSymbol, (byte) -1);
+    }
+
+    /**
+     * Generates the atlas, with a row for every kind of block in the registry.
+     *
+     * @param tiles registry of the kinds of tiles
+     * @param playerColor colour of the player
+     */
+    public void build(TileRegistry tiles, Color playerColor) {
+        int kinds = 0;
+        for (int kind = 0; kind < tiles.size(); kind++)
+            if (!tiles.is(kind, TileRegistry.BUTTON))
+                rowOfSymbol[tiles.getSymbol(kind)] = (byte) kinds++;
+
+        atlas = new WritableImage(16 * PLATFORM_SIZE, (kinds + 1) * PLATFORM_SIZE);
+        reader = atlas.getPixelReader();
+        PixelWriter writer = atlas.getPixelWriter();
+
+        // shading of each kind, for each mask
+        for (int kind = 0; kind < tiles.size(); kind++) {
+            if (tiles.is(kind, TileRegistry.BUTTON)) continue;
+
+            int[] shape = tiles.getShape(kind);
+            int top = rowOfSymbol[tiles.getSymbol(kind)] * PLATFORM_SIZE;
+            for (int mask = 0; mask <= ALL; mask++)
+                shade(writer, mask * PLATFORM_SIZE + shape[0], top + shape[1], shape[2], shape[3], mask, 0);
+        }
+
+        // player, filled and shaded on every side
+        int top = kinds * PLATFORM_SIZE;
+        shade(writer, 0, top, PLAYER_SIZE, PLAYER_SIZE, 0, argb(playerColor));
+        player = new WritableImage(reader, 0, top, PLAYER_SIZE, PLAYER_SIZE);
+    }
+
+    /**
+     * Finds the neighbour mask of every cell of a level, before its tiles are drawn.
+     * Cells outside the level count as matching neighbours.
+     *
+     * @param level rows of the level
+     */
+    public void setLevel(String[] level) {
+        rows = level.length;
+        columns = rows == 0 ? 0 : level[0].length();
+        if (masks.length < rows * columns) masks = new byte[rows * columns];
+
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                char symbol = level[row].charAt(column);
+                int mask = 0;
+                if (row == 0 || level[row - 1].charAt(column) == symbol) mask |= UP;
+                if (column == columns - 1 || level[row].charAt(column + 1) == symbol) mask |= RIGHT;
+                if (row == rows - 1 || level[row + 1].charAt(column) == symbol) mask |= DOWN;
+                if (column == 0 || level[row].charAt(column - 1) == symbol) mask |= LEFT;
+                masks[row * columns + column] = (byte) mask;
+            }
+        }
+    }
+
+    /**
+     * @param type symbol of the tile
+     * @return if the tile has regions in the atlas
+     */
+    public boolean has(char type) {
+        return type < rowOfSymbol.length && rowOfSymbol[type] >= 0;
+    }
+
+    /**
+     * @return image of the player
+     */
+    public Image getPlayer() {
+        return player;
+    }
+
+    /**
+     * Draws the regions of a tile over its fill. Only the cells on the edge of the tile are
+     * looked at, and only those with a side to shade are drawn.
+     *
+     * @param gc graphics to draw on
+     * @param type symbol of the tile
+     * @param x x coordinate of the tile in the level
+     * @param y y coordinate of the tile in the level
+     * @param width width of the tile
+     * @param height height of the tile
+     * @param originX x coordinate of the graphics in the level
+     * @param originY y coordinate of the graphics in the level
+     */
+    public void draw(GraphicsContext gc, char type, int x, int y, int width, int height, int originX, int originY) {
+        int col0 = x / PLATFORM_SIZE, col1 = (x + width - 1) / PLATFORM_SIZE;
+        int row0 = y / PLATFORM_SIZE, row1 = (y + height - 1) / PLATFORM_SIZE;
+        int top = rowOfSymbol[type] * PLATFORM_SIZE;
+
+        for (int row = row0; row <= row1; row++) {
+            // cells inside the tile have every neighbour
+            int step = row == row0 || row == row1 ? 1 : Math.max(1, col1 - col0);
+            for (int column = col0; column <= col1; column += step) {
+                int mask = getMask(column, row);
+                if (mask == ALL) continue;
+
+                gc.drawImage(
+                        atlas,
+                        mask * PLATFORM_SIZE, top, PLATFORM_SIZE, PLATFORM_SIZE,
+                        column * PLATFORM_SIZE - originX, row * PLATFORM_SIZE - originY, PLATFORM_SIZE, PLATFORM_SIZE
+                );
+            }
+        }
+    }
+
+    /**
+     * Finds the colour of a pixel of a tile, with its region drawn over its fill.
+     *
+     * @param type symbol of the tile
+     * @param x x coordinate of the pixel in the level
+     * @param y y coordinate of the pixel in the level
+     * @param fill colour of the tile, as ARGB
+     * @return colour of the pixel, as ARGB
+     */
+    public int getPixel(char type, int x, int y, int fill) {
+        int mask = getMask(x / PLATFORM_SIZE, y / PLATFORM_SIZE);
+        if (mask == ALL) return fill;
+
+        int shade = reader.getArgb(mask * PLATFORM_SIZE + x % PLATFORM_SIZE, rowOfSymbol[type] * PLATFORM_SIZE + y % PLATFORM_SIZE);
+        return blend(fill, shade);
+    }
+
+    /**
+     * @param color colour
+     * @return the colour as ARGB
+     */
+    public static int argb(Color color) {
+        return (int) Math.round(color.getOpacity() * 255) << 24
+                | (int) Math.round(color.getRed() * 255) << 16
+                | (int) Math.round(color.getGreen() * 255) << 8
+                | (int) Math.round(color.getBlue() * 255);
+    }
+
+    /**
+     * @param column column of the cell
+     * @param row row of the cell
+     * @return neighbour mask of the cell, with every neighbour if outside the level
+     */
+    private int getMask(int column, int row) {
+        if (column < 0 || column >= columns || row < 0 || row >= rows) return ALL;
+        return masks[row * columns + column];
+    }
+
+    /**
+     * Writes a box into the atlas, shading the sides without a matching neighbour.
+     *
+     * @param writer writes the pixels of the atlas
+     * @param left x coordinate of the box in the atlas
+     * @param top y coordinate of the box in the atlas
+     * @param width width of the box
+     * @param height height of the box
+     * @param mask neighbour mask
+     * @param fill colour under the shading, as ARGB, or {@code 0} for none
+     */
+    private static void shade(PixelWriter writer, int left, int top, int width, int height, int mask, int fill) {
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int color = fill;
+                if ((mask & DOWN) == 0 && y >= height - BEVEL || (mask & RIGHT) == 0 && x >= width - BEVEL)
+                    color = blend(fill, DARK);
+                else if ((mask & UP) == 0 && y < BEVEL || (mask & LEFT) == 0 && x < BEVEL)
+                    color = blend(fill, LIGHT);
+                writer.setArgb(left + x, top + y, color);
+            }
+        }
+    }
+
+    /**
+     * Draws one colour over another.
+     *
+     * @param under colour below, as ARGB
+     * @param over colour above, as ARGB
+     * @return colour seen, as ARGB
+     */
+    private static int blend(int under, int over) {
+        int alpha = over >>> 24;
+        if (alpha == 0) return under;
+        if (under >>> 24 == 0) return over;
+
+        int red = ((over >> 16 & 0xFF) * alpha + (under >> 16 & 0xFF) * (255 - alpha)) / 255;
+        int green = ((over >> 8 & 0xFF) * alpha + (under >> 8 & 0xFF) * (255 - alpha)) / 255;
+        int blue = ((over & 0xFF) * alpha + (under & 0xFF) * (255 - alpha)) / 255;
+        return under & 0xFF000000 | red << 16 | green << 8 | blue;
+    }
+
+}
@@ -0,0 +1,230 @@
+package com.platformer;
+
+// imports
+import java.util.Arrays;
+
+/**
+ * Index of the trigger volumes of a level, which are the platforms with a {@link TileAction}.
+ * The volumes are kept in their own {@link PlatformGrid}, so the level ground is never searched
+ * for them. Each tick the player is checked against the index, which raises an enter event for
+ * every volume the player started touching and an exit event for every volume it stopped
+ * touching. The volumes touched are kept until the next change, so they can be acted on while
+ * the player stays inside them.
+ * <p>
+ * Nothing is searched while the player does not move, or while it only moves between
+ * cells without any volume.
+ */
+public class TriggerIndex {
+
+    /**
+     * Grid of the trigger volumes.
+     */
+    private final PlatformGrid grid;
+
+    /**
+     * Platforms of the level.
+     */
+    private LevelGeometry geometry;
+
+    /**
+     * Box of the player at the last update, as left, top, right, and bottom.
+     */
+    private final int[] lastBox = new int[4];
+
+    /**
+     * Cells searched at the last update, as first column, first row, last column, and last row.
+     */
+    private final int[] lastCells = new int[4];
+
+    /**
+     * If any trigger volume was found in the cells searched at the last update.
+     */
+    private boolean lastCellsHadVolumes;
+
+    /**
+     * Volumes touched by the player.
+     */
+    private int[] occupied = new int[8];
+
+    /**
+     * Number of volumes touched by the player.
+     */
+    private int occupiedCount;
+
+    /**
+     * Volumes touched at the last update, reused as the new list each update.
+     */
+    private int[] previous = new int[8];
+
+    /**
+     * Volumes the player started touching at the last update.
+     */
+    private int[] entered = new int[8];
+
+    /**
+     * Number of volumes the player started touching at the last update.
+     */
+    private int enteredCount;
+
+    /**
+     * Volumes the player stopped touching at the last update.
+     */
+    private int[] exited = new int[8];
+
+    /**
+     * Number of volumes the player stopped touching at the last update.
+     */
+    private int exitedCount;
+
+    /**
+     * Creates an empty {@link TriggerIndex}.
+     *
+     * @param cellSize width and height of a cell
+     */
+    public TriggerIndex(int cellSize) {
+        grid = new PlatformGrid(cellSize);
+    }
+
+    /**
+     * Rebuilds the index from the platforms of a level, and forgets the volumes touched,
+     * so the volumes touched at the next update are all entered.
+     *
+     * @param geometry platforms of the level
+     * @param tiles registry of the kinds of the platforms
+     * @param width width of the level
+     * @param height height of the level
+     */
+    public void build(LevelGeometry geometry, TileRegistry tiles, int width, int height) {
+        this.geometry = geometry;
+        grid.build(geometry, platform -> tiles.getAction(geometry.getKind(platform)) != null, width, height);
+
+        Arrays.fill(lastBox, Integer.MIN_VALUE);
+        Arrays.fill(lastCells, -1);
+        lastCellsHadVolumes = false;
+        occupiedCount = 0;
+        enteredCount = 0;
+        exitedCount = 0;
+    }
+
+    /**
+     * Checks the box of the player against the index, and finds the volumes entered and exited.
+     *
+     * @param left x coordinate of the left side of the player
+     * @param top y coordinate of the top side of the player
+     * @param right x coordinate of the right side of the player
+     * @param bottom y coordinate of the bottom side of the player
+     */
+    public void update(int left, int top, int right, int bottom) {
+        enteredCount = 0;
+        exitedCount = 0;
+
+        // nothing changes if the player did not move
+        if (left == lastBox[0] && top == lastBox[1] && right == lastBox[2] && bottom == lastBox[3]) return;
+        lastBox[0] = left;
+        lastBox[1] = top;
+        lastBox[2] = right;
+        lastBox[3] = bottom;
+
+        // nothing changes if the player stays in cells without volumes
+        int col0 = grid.column(left - 1), col1 = grid.column(right);
+        int row0 = grid.row(top - 1), row1 = grid.row(bottom);
+        boolean sameCells = col0 == lastCells[0] && row0 == lastCells[1]
+                && col1 == lastCells[2] && row1 == lastCells[3];
+        if (sameCells && !lastCellsHadVolumes) return;
+        lastCells[0] = col0;
+        lastCells[1] = row0;
+        lastCells[2] = col1;
+        lastCells[3] = row1;
+
+        // swap lists, the old volumes are kept in previous
+        int[] swap = previous;
+        previous = occupied;
+        occupied = swap;
+        int previousCount = occupiedCount;
+        occupiedCount = 0;
+
+        // find the volumes touched now
+        int nearby = grid.query(left, top, right, bottom);
+        lastCellsHadVolumes = nearby > 0;
+        for (int i = 0; i < nearby; i++) {
+            int platform = grid.get(i);
+            if (!geometry.touches(platform, left, top, right, bottom)) continue;
+
+            if (occupiedCount == occupied.length)
+                occupied = Arrays.copyOf(occupied, occupiedCount * 2);
+            occupied[occupiedCount++] = platform;
+            if (!contains(previous, previousCount, platform)) {
+                if (enteredCount == entered.length)
+                    entered = Arrays.copyOf(entered, enteredCount * 2);
+                entered[enteredCount++] = platform;
+            }
+        }
+
+        // find the volumes no longer touched
+        for (int i = 0; i < previousCount; i++) {
+            if (contains(occupied, occupiedCount, previous[i])) continue;
+
+            if (exitedCount == exited.length)
+                exited = Arrays.copyOf(exited, exitedCount * 2);
+            exited[exitedCount++] = previous[i];
+        }
+    }
+
+    /**
+     * @return number of volumes touched by the player
+     */
+    public int occupied() {
+        return occupiedCount;
+    }
+
+    /**
+     * @param index index of the volume in the touched volumes
+     * @return {@link LevelGeometry} index of the volume
+     */
+    public int getOccupied(int index) {
+        return occupied[index];
+    }
+
+    /**
+     * @return number of volumes the player started touching at the last update
+     */
+    public int entered() {
+        return enteredCount;
+    }
+
+    /**
+     * @param index index of the volume in the entered volumes
+     * @return {@link LevelGeometry} index of the volume
+     */
+    public int getEntered(int index) {
+        return entered[index];
+    }
+
+    /**
+     * @return number of volumes the player stopped touching at the last update
+     */
+    public int exited() {
+        return exitedCount;
+    }
+
+    /**
+     * @param index index of the volume in the exited volumes
+     * @return {@link LevelGeometry} index of the volume
+     */
+    public int getExited(int index) {
+        return exited[index];
+    }
+
+    /**
+     * @param platforms list of platforms
+     * @param count number of platforms in the list
+     * @param platform platform to find
+     * @return if the platform is in the list
+     */
+    private static boolean contains(int[] platforms, int count, int platform) {
+        for (int i = 0; i < count; i++)
+            if (platforms[i] == platform) return true;
+        return false;
+    }
+
+}
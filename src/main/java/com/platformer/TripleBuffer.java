@@ -0,0 +1,84 @@
+package com.platformer;
+
+// imports
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free handoff of the latest value from one writer thread to one reader thread. The writer
+ * fills the back buffer and publishes it, swapping it with the middle buffer. The reader swaps
+ * the middle buffer with its front buffer when a newer one has been published. Neither thread
+ * ever waits, and the reader always gets the newest complete value.
+ *
+ * @param <T> type of the buffers, which are reused rather than replaced
+ */
+public class TripleBuffer<T> {
+
+    /**
+     * Bit of {@link TripleBuffer#middle} set when the middle buffer has not been read yet.
+     */
+    private static final int FRESH = 4;
+
+    /**
+     * The three buffers.
+     */
+    private final T[] buffers;
+
+    /**
+     * Index of the middle buffer, and {@link TripleBuffer#FRESH} if it was published since last read.
+     */
+    private final AtomicInteger middle = new AtomicInteger(1);
+
+    /**
+     * Index of the buffer being filled, only used by the writer.
+     */
+    private int back = 0;
+
+    /**
+     * Index of the buffer being read, only used by the reader.
+     */
+    private int front = 2;
+
+    /**
+     * Creates a {@link TripleBuffer}.
+     *
+     * @param factory creates each of the three buffers
+     */
+    @SuppressWarnings("unchecked")
+    public TripleBuffer(Supplier<T> factory) {
+        buffers = (T[]) new Object[]{factory.get(), factory.get(), factory.get()};
+    }
+
+    /**
+     * @return the buffer for the writer to fill
+     */
+    public T back() {
+        return buffers[back];
+    }
+
+    /**
+     * Publishes the back buffer to the reader. The writer must not change it afterwards.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & ~FRESH;
+    }
+
+    /**
+     * @return if a buffer was published since the reader last took one
+     */
+    public boolean hasFresh() {
+        return (middle.get() & FRESH) != 0;
+    }
+
+    /**
+     * Takes the newest published buffer, or the buffer taken last time if nothing new was published.
+     *
+     * @return the buffer for the reader
+     */
+    public T front() {
+        if (hasFresh())
+            front = middle.getAndSet(front) & ~FRESH;
+        return buffers[front];
+    }
+
+}
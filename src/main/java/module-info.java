@@ -1,5 +1,6 @@
 module com.platformer.platformer {
     requires javafx.controls;
+    requires jdk.management;
 
     exports com.platformer;
-}
\ No newline at end of file
+}
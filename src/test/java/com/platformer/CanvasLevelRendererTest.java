@@ -0,0 +1,149 @@
+package com.platformer;
+
+// junit imports
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+// other imports
+import javafx.scene.paint.Color;
+import java.util.Arrays;
+
+/**
+ * Timing of {@link CanvasLevelRenderer#createChunk(int, int, int, int)} on the largest level of
+ * {@link GameLevels#PAGES}, with the edges shaded from the {@link TileSprites} atlas and with the
+ * flat tiles drawn before the atlas. Only the drawing commands are timed, since the canvas is
+ * filled in by the render thread of the toolkit, which does not run without a display. The
+ * software pipeline is used, so the atlas can be made without a graphics card.
+ * <p>
+ * The chunks are drawn once when a level is loaded, and each frame shows the same chunks either
+ * way, so shading only adds to loading. The shaded chunks of the whole level must be drawn within
+ * one tick, so loading a level never costs a frame.
+ */
+class CanvasLevelRendererTest implements GameValues, GameLevels, RectangleColors, RectangleTypes {
+
+    static {
+        // software pipeline, set before the toolkit is loaded
+        if (System.getProperty("prism.order") == null)
+            System.setProperty("prism.order", "sw");
+    }
+
+    /**
+     * Times the chunks of the level are drawn before timing.
+     */
+    private static final int WARMUP_RUNS = 200;
+
+    /**
+     * Times the chunks of the level are drawn and timed.
+     */
+    private static final int MEASURED_RUNS = 200;
+
+    /**
+     * Kinds of tiles of the game.
+     */
+    private final TileRegistry tiles = new TileRegistry();
+
+    /**
+     * Level with the most tiles.
+     */
+    private final String[] level;
+
+    /**
+     * Registers the kinds of tiles of the game, and finds the level with the most tiles.
+     */
+    CanvasLevelRendererTest() {
+        LevelPhysics.registerBlocks(tiles, platform -> true, platform -> true, platform -> true);
+        String[] largest = PAGES[0];
+        for (String[] page : PAGES)
+            if (count(page) > count(largest))
+                largest = page;
+        level = largest;
+    }
+
+    @Test
+    void shadingTime() {
+        TileSprites sprites = new TileSprites(), empty = new TileSprites();
+        sprites.build(tiles, PLAYER_COLOR);
+        assertTrue(sprites.has(GROUND_TYPE) && !empty.has(GROUND_TYPE));
+        Renderer shaded = new Renderer(sprites), flat = new Renderer(empty);
+
+        // both are run first, so neither is compiled while timing
+        for (int run = 0; run < WARMUP_RUNS; run++) {
+            shaded.drawChunks();
+            flat.drawChunks();
+        }
+
+        // median of the runs of each, taken in turn
+        long[] shadedTimes = new long[MEASURED_RUNS], flatTimes = new long[MEASURED_RUNS];
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            shadedTimes[run] = shaded.drawChunks();
+            flatTimes[run] = flat.drawChunks();
+        }
+        Arrays.sort(shadedTimes);
+        Arrays.sort(flatTimes);
+        long shadedTime = shadedTimes[MEASURED_RUNS / 2], flatTime = flatTimes[MEASURED_RUNS / 2];
+        System.out.printf(
+                "Chunks of a %dx%d level with %d tiles: flat %.3f ms, shaded %.3f ms (median of %d)%n",
+                level[0].length(), level.length, flat.size(), flatTime / 1e6, shadedTime / 1e6, MEASURED_RUNS
+        );
+        assertTrue(shadedTime < 1e9 / TICK_RATE, "shaded chunks took " + shadedTime + " ns, flat took " + flatTime);
+    }
+
+    /**
+     * @param page rows of a level
+     * @return number of cells with a tile
+     */
+    private static int count(String[] page) {
+        int count = 0;
+        for (String row : page)
+            for (int i = 0; i < row.length(); i++)
+                if (row.charAt(i) != ' ')
+                    count++;
+        return count;
+    }
+
+    /**
+     * {@link CanvasLevelRenderer} with the level loaded, whose chunks can be drawn again.
+     */
+    private final class Renderer extends CanvasLevelRenderer {
+
+        /**
+         * Width of the level.
+         */
+        private final int width;
+
+        /**
+         * Height of the level.
+         */
+        private final int height;
+
+        /**
+         * Loads the level.
+         *
+         * @param sprites atlas the edges of the tiles are shaded from, empty for flat tiles
+         */
+        Renderer(TileSprites sprites) {
+            super(sprites);
+            sprites.setLevel(level);
+            LevelPhysics physics = new LevelPhysics(new PlayerState(PLAYER_SIZE), new LevelGeometry(), tiles);
+            physics.load(level, (kind, type, left, top, width, height) -> fillTile(left, top, width, height, tiles.getColor(kind), type));
+            width = physics.getLevelWidth();
+            height = physics.getLevelHeight();
+            finish(width, height);
+        }
+
+        /**
+         * Draws every chunk of the level again.
+         *
+         * @return nanoseconds taken
+         */
+        long drawChunks() {
+            long start = System.nanoTime();
+            for (int row = 0; row < chunkRows; row++)
+                for (int column = 0; column < chunkColumns; column++)
+                    createChunk(column, row, width, height);
+            return System.nanoTime() - start;
+        }
+
+    }
+
+}
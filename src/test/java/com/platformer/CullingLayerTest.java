@@ -0,0 +1,170 @@
+package com.platformer;
+
+// junit imports
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+// other imports
+import javafx.scene.Group;
+import javafx.scene.Node;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Tests of {@link CullingLayer}, on a level of items laid out in rows and columns of different sizes.
+ */
+class CullingLayerTest {
+
+    /**
+     * Width and height of a cell of the layer.
+     */
+    private static final int CELL_SIZE = 256;
+
+    /**
+     * Width of the level.
+     */
+    private static final int WIDTH = 6000;
+
+    /**
+     * Height of the level.
+     */
+    private static final int HEIGHT = 3000;
+
+    /**
+     * Width of the viewport.
+     */
+    private static final int VIEW_WIDTH = 1350;
+
+    /**
+     * Height of the viewport.
+     */
+    private static final int VIEW_HEIGHT = 720;
+
+    /**
+     * Number of nodes created by the factory.
+     */
+    private int created;
+
+    /**
+     * Layer under test, with a new {@link Group} for each node.
+     */
+    private final CullingLayer layer = new CullingLayer(item -> {
+        created++;
+        return new Group();
+    });
+
+    /**
+     * Boxes of the items, as x, y, width, and height.
+     */
+    private final int[][] boxes = new int[2000][];
+
+    /**
+     * Adds items of up to three cells wide and tall, spread over the level.
+     */
+    CullingLayerTest() {
+        Random random = new Random(7);
+        for (int item = 0; item < boxes.length; item++) {
+            int width = 10 + random.nextInt(3 * CELL_SIZE), height = 10 + random.nextInt(3 * CELL_SIZE);
+            int x = random.nextInt(WIDTH - width), y = random.nextInt(HEIGHT - height);
+            boxes[item] = new int[]{x, y, width, height};
+            assertEquals(item, layer.add(x, y, width, height));
+        }
+        layer.finish(WIDTH, HEIGHT);
+    }
+
+    @Test
+    void attachesItemsNearViewport() {
+        Random random = new Random(11);
+        double left = 0, top = 0;
+        for (int step = 0; step < 2000; step++) {
+            // scroll, and now and then jump across the level
+            if (step % 100 == 0) {
+                left = random.nextInt(WIDTH) - VIEW_WIDTH / 2.0;
+                top = random.nextInt(HEIGHT) - VIEW_HEIGHT / 2.0;
+            }
+            else {
+                left += random.nextGaussian() * 40;
+                top += random.nextGaussian() * 40;
+            }
+            layer.setViewport(left, top, VIEW_WIDTH, VIEW_HEIGHT);
+            assertAttached(left, top);
+        }
+    }
+
+    @Test
+    void keepsNodesWhileNear() {
+        layer.setViewport(2000, 1000, VIEW_WIDTH, VIEW_HEIGHT);
+        Node[] before = new Node[boxes.length];
+        for (int item = 0; item < boxes.length; item++)
+            before[item] = layer.getNode(item);
+        int createdBefore = created;
+
+        // one cell to the right, nodes still near are the same
+        layer.setViewport(2000 + CELL_SIZE, 1000, VIEW_WIDTH, VIEW_HEIGHT);
+        int kept = 0;
+        for (int item = 0; item < boxes.length; item++) {
+            if (before[item] == null || layer.getNode(item) == null) continue;
+            assertSame(before[item], layer.getNode(item));
+            kept++;
+        }
+        assertTrue(kept > 0);
+        assertEquals(layer.getChildren().size() - kept, created - createdBefore);
+
+        // staying in the same cells changes nothing
+        int children = layer.getChildren().size();
+        layer.setViewport(2000 + CELL_SIZE + 10, 1010, VIEW_WIDTH, VIEW_HEIGHT);
+        assertEquals(children, layer.getChildren().size());
+    }
+
+    @Test
+    void clearDetachesEverything() {
+        layer.setViewport(0, 0, VIEW_WIDTH, VIEW_HEIGHT);
+        assertFalse(layer.getChildren().isEmpty());
+        layer.clear();
+        assertTrue(layer.getChildren().isEmpty());
+
+        // the viewport can move before the next level is finished
+        layer.setViewport(500, 500, VIEW_WIDTH, VIEW_HEIGHT);
+        assertTrue(layer.getChildren().isEmpty());
+    }
+
+    /**
+     * Checks that the children of the layer are exactly the nodes of the items in the cells
+     * around a viewport.
+     *
+     * @param left x coordinate of the left side of the viewport
+     * @param top y coordinate of the top side of the viewport
+     */
+    private void assertAttached(double left, double top) {
+        int col0 = column((int) Math.floor(left) - CELL_SIZE), col1 = column((int) Math.ceil(left + VIEW_WIDTH) + CELL_SIZE);
+        int row0 = row((int) Math.floor(top) - CELL_SIZE), row1 = row((int) Math.ceil(top + VIEW_HEIGHT) + CELL_SIZE);
+
+        HashSet<Node> expected = new HashSet<>();
+        for (int item = 0; item < boxes.length; item++) {
+            int[] box = boxes[item];
+            boolean near = column(box[0]) <= col1 && column(box[0] + box[2] - 1) >= col0
+                    && row(box[1]) <= row1 && row(box[1] + box[3] - 1) >= row0;
+            assertEquals(near, layer.getNode(item) != null, "item " + item);
+            if (near) expected.add(layer.getNode(item));
+        }
+        assertEquals(expected.size(), layer.getChildren().size());
+        assertEquals(expected, new HashSet<>(layer.getChildren()));
+    }
+
+    /**
+     * @param x x coordinate
+     * @return column of the layer containing the coordinate
+     */
+    private static int column(int x) {
+        return Math.clamp(Math.floorDiv(x, CELL_SIZE), 0, (WIDTH - 1) / CELL_SIZE);
+    }
+
+    /**
+     * @param y y coordinate
+     * @return row of the layer containing the coordinate
+     */
+    private static int row(int y) {
+        return Math.clamp(Math.floorDiv(y, CELL_SIZE), 0, (HEIGHT - 1) / CELL_SIZE);
+    }
+
+}
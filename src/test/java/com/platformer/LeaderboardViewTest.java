@@ -0,0 +1,170 @@
+package com.platformer;
+
+// junit imports
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+// other imports
+import javafx.util.Pair;
+import java.util.ArrayList;
+
+/**
+ * Tests of the scrolling and cell reuse of {@link LeaderboardView}, with cells that record
+ * their text instead of laying it out.
+ */
+@SuppressWarnings("unchecked")
+class LeaderboardViewTest {
+
+    /**
+     * Width of the view, a little under three columns.
+     */
+    private static final int WIDTH = 400;
+
+    /**
+     * Height of the view, the header and ten entries.
+     */
+    private static final int HEIGHT = 230;
+
+    /**
+     * Every cell created.
+     */
+    private final ArrayList<RecordingCell> cells = new ArrayList<>();
+
+    /**
+     * View under test.
+     */
+    private final LeaderboardView view = new LeaderboardView(0, 0, WIDTH, HEIGHT, (height, centered) -> {
+        RecordingCell cell = new RecordingCell();
+        cells.add(cell);
+        return cell;
+    });
+
+    @Test
+    void scrollIsClamped() {
+        view.setData(leaderboard(9, 30));
+
+        // 9 columns end at 9 * 135 - 15, and 30 entries at 30 * 20
+        view.scrollBy(-50, -50);
+        assertEquals(0, view.getScrollX());
+        assertEquals(0, view.getScrollY());
+        view.scrollBy(10_000, 10_000);
+        assertEquals(1200 - WIDTH, view.getScrollX());
+        assertEquals(600 - (HEIGHT - 30), view.getScrollY());
+        view.scrollBy(-100, -30);
+        assertEquals(1200 - WIDTH - 100, view.getScrollX());
+        assertEquals(600 - (HEIGHT - 30) - 30, view.getScrollY());
+    }
+
+    @Test
+    void smallerDataClampsScroll() {
+        view.setData(leaderboard(9, 30));
+        view.scrollBy(10_000, 10_000);
+
+        // everything fits, so nothing is scrolled
+        view.setData(leaderboard(2, 5));
+        assertEquals(0, view.getScrollX());
+        assertEquals(0, view.getScrollY());
+    }
+
+    @Test
+    void scrollingReusesCells() {
+        int created = cells.size();
+        view.setData(leaderboard(9, 30));
+        for (int step = 0; step < 100; step++)
+            view.scrollBy(37, 11);
+        for (int step = 0; step < 100; step++)
+            view.scrollBy(-37, -11);
+        assertEquals(created, cells.size());
+
+        // the same cells show the first columns and rows again
+        assertEquals(0, view.getScrollX());
+        assertEquals("Level 1", cells.get(0).text);
+        assertEquals("Player 1: 100", cells.get(1).text);
+    }
+
+    @Test
+    void cellsOnlyChangeWhenScrolledPast() {
+        view.setData(leaderboard(9, 30));
+        int changes = changes();
+
+        // within the first column and row
+        view.scrollBy(100, 15);
+        assertEquals(changes, changes());
+
+        // one column over, every shown cell changes
+        view.scrollBy(35, 0);
+        assertTrue(changes() > changes);
+    }
+
+    @Test
+    void sameDataChangesNothing() {
+        Pair<String, Integer>[][] leaderboard = leaderboard(9, 30);
+        view.setData(leaderboard);
+        int changes = changes();
+        view.setData(leaderboard);
+        assertEquals(changes, changes());
+
+        // one new score changes one cell
+        leaderboard[1][0] = new Pair<>("Player 1", 50);
+        view.setData(leaderboard);
+        assertEquals(changes + 1, changes());
+    }
+
+    @Test
+    void unusedCellsAreHidden() {
+        view.setData(leaderboard(1, 2));
+
+        // one column of a header and two entries
+        long shown = cells.stream().filter(RecordingCell::isVisible).count();
+        assertEquals(3, shown);
+    }
+
+    /**
+     * @return number of times the text of any cell changed
+     */
+    private int changes() {
+        int changes = 0;
+        for (RecordingCell cell : cells)
+            changes += cell.changes;
+        return changes;
+    }
+
+    /**
+     * Creates a leaderboard with the level as index, and a first unused level.
+     *
+     * @param levels number of levels
+     * @param entries number of entries of each level
+     * @return the leaderboard
+     */
+    private static Pair<String, Integer>[][] leaderboard(int levels, int entries) {
+        Pair<String, Integer>[][] leaderboard = new Pair[levels + 1][entries];
+        for (int level = 1; level <= levels; level++)
+            for (int placement = 0; placement < entries; placement++)
+                leaderboard[level][placement] = new Pair<>("Player " + (placement + 1), level * 100 + placement);
+        return leaderboard;
+    }
+
+    /**
+     * Cell that records its text and how often it changed.
+     */
+    private static final class RecordingCell extends LeaderboardView.Cell {
+
+        /**
+         * Text shown.
+         */
+        private String text;
+
+        /**
+         * Number of times the text changed.
+         */
+        private int changes;
+
+        @Override
+        protected void setText(String text) {
+            this.text = text;
+            changes++;
+        }
+
+    }
+
+}
@@ -0,0 +1,273 @@
+package com.platformer;
+
+// junit imports
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+// other imports
+import java.lang.management.ManagementFactory;
+import javafx.scene.input.KeyCode;
+import javafx.scene.paint.Color;
+
+/**
+ * Tests of {@link LevelPhysics}, run on the levels of the game without anything drawn.
+ * Ticks go through a {@link SimulationLoop} built like the one of {@link Platformer}: each takes
+ * an {@link InputSnapshot}, moves the player, and publishes a {@link FrameSnapshot}. The pause
+ * and invincibility keys and the {@link LatencyTracer} of {@code Platformer.updateGame()} are
+ * not run, since {@link Platformer} needs the JavaFX toolkit, and neither is the sleeping and
+ * scheduling of the loop thread.
+ */
+class LevelPhysicsTest implements GameValues, GameLevels, GameKeybinds {
+
+    /**
+     * Ticks run before measuring, so loading, class initialization, and compilation are not counted.
+     */
+    private static final int WARMUP_TICKS = 2_000;
+
+    /**
+     * Ticks measured on each level.
+     */
+    private static final int MEASURED_TICKS = 2_000;
+
+    /**
+     * Times a level is measured before failing. The compiler can allocate when it recompiles
+     * or deoptimizes a method, which happens once, while a tick that allocates does so every time.
+     */
+    private static final int ATTEMPTS = 3;
+
+    /**
+     * Keys held down.
+     */
+    private final InputState input = new InputState();
+
+    /**
+     * State of the player.
+     */
+    private final PlayerState player = new PlayerState(PLAYER_SIZE);
+
+    /**
+     * Platforms of the level.
+     */
+    private final LevelGeometry platforms = new LevelGeometry();
+
+    /**
+     * Kinds of tiles.
+     */
+    private final TileRegistry tiles = new TileRegistry();
+
+    /**
+     * Physics under test.
+     */
+    private final LevelPhysics physics = new LevelPhysics(player, platforms, tiles);
+
+    /**
+     * Frames published by the ticks.
+     */
+    private final TripleBuffer<FrameSnapshot> frames = new TripleBuffer<>(FrameSnapshot::new);
+
+    /**
+     * Loop of the ticks, only run through {@link SimulationLoop#tick(long)} on the test thread.
+     */
+    private final SimulationLoop simulation = new SimulationLoop("simulation", TICK_RATE, MAX_CATCH_UP_TICKS) {
+        @Override
+        protected boolean tick(long time) {
+            InputSnapshot keys = input.snapshot();
+            player.savePrevious();
+            physics.tick(keys);
+            frames.back().set(time, player, deaths, physics.getStart());
+            frames.publish();
+            return true;
+        }
+    };
+
+    /**
+     * Scheduled time of the next tick in nanoseconds.
+     */
+    private long time;
+
+    /**
+     * Spawnpoint of the player, as x and y.
+     */
+    private final int[] spawn = new int[2];
+
+    /**
+     * Number of times the player touched lava.
+     */
+    private int deaths;
+
+    /**
+     * Number of times the player touched the finish.
+     */
+    private int finishes;
+
+    /**
+     * Registers the kinds of tiles of the game. Lava and the finish send the player back to
+     * spawn, and checkpoints move the spawnpoint, like in the game.
+     */
+    LevelPhysicsTest() {
+        LevelPhysics.registerBlocks(tiles, this::touchCheckpoint, this::touchFinish, this::touchLava);
+        for (String[] page : PAGES)
+            for (String row : page)
+                for (int i = 0; i < row.length(); i++)
+                    if (row.charAt(i) != ' ' && tiles.kindOf(row.charAt(i)) < 0)
+                        tiles.registerButton(row.charAt(i), Color.GRAY, 3 * PLATFORM_SIZE, "", () -> {});
+    }
+
+    @Test
+    void tickAllocatesNothing() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // every level is run first, so no path is compiled for the first time while measuring
+        for (int level = 1; level < 10; level++) {
+            load(level);
+            run(WARMUP_TICKS);
+        }
+
+        // measure the ticks of each running level
+        threads.getCurrentThreadAllocatedBytes();
+        for (int level = 1; level < 10; level++) {
+            long allocated = Long.MAX_VALUE;
+            for (int attempt = 0; attempt < ATTEMPTS && allocated > 0; attempt++) {
+                load(level);
+                long before = threads.getCurrentThreadAllocatedBytes();
+                run(MEASURED_TICKS);
+                allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            }
+            assertEquals(0, allocated, "bytes allocated by " + MEASURED_TICKS + " ticks of level " + level);
+        }
+        assertTrue(deaths + finishes > 0, "the player never touched lava or the finish");
+    }
+
+    @Test
+    void playerLandsOnGround() {
+        load(1);
+        for (int tick = 0; tick < 120; tick++)
+            tick();
+
+        // standing still on the ground
+        int top = player.getTop();
+        tick();
+        assertEquals(top, player.getTop());
+        assertTrue(player.canJump());
+    }
+
+    @Test
+    void jumpLeavesGround() {
+        load(1);
+        for (int tick = 0; tick < 120; tick++)
+            tick();
+
+        int top = player.getTop();
+        input.press(JUMP_KEY);
+        tick();
+        input.release(JUMP_KEY);
+        assertTrue(player.getTop() < top);
+        assertFalse(player.canJump());
+    }
+
+    @Test
+    void wallStopsPlayer() {
+        load(1);
+
+        // run left into the edge of the level
+        input.press(LEFT_KEY);
+        for (int tick = 0; tick < 600; tick++)
+            tick();
+        int left = player.getLeft();
+        tick();
+        input.release(LEFT_KEY);
+        assertEquals(left, player.getLeft());
+    }
+
+    /**
+     * Loads a level, and puts the player at its start point.
+     *
+     * @param level level to load
+     */
+    private void load(int level) {
+        physics.load(PAGES[level], (kind, type, left, top, width, height) -> 0);
+        int start = physics.getStart();
+        assertTrue(start >= 0, "level " + level + " has no start point");
+        touchCheckpoint(start);
+        player.setPosition(spawn[0], spawn[1]);
+    }
+
+    /**
+     * Runs ticks with the keys of a player running and jumping right, turning back now and
+     * then, and dropping through planks.
+     *
+     * @param ticks number of ticks
+     */
+    private void run(int ticks) {
+        for (int tick = 0; tick < ticks; tick++) {
+            hold(RIGHT_KEY, tick % 400 < 300);
+            hold(LEFT_KEY, tick % 400 >= 320);
+            hold(JUMP_KEY, tick % 40 < 10);
+            hold(FALL_KEY, tick % 150 < 5);
+            hold(INTERACT_KEY, tick % 90 == 0);
+            tick();
+        }
+        input.releaseAll();
+    }
+
+    /**
+     * Runs one tick, and checks that its frame was published.
+     */
+    private void tick() {
+        simulation.tick(time);
+        assertEquals(time, frames.front().getTime());
+        time += simulation.getTickNanos();
+    }
+
+    /**
+     * Presses or releases a key.
+     *
+     * @param key key to change
+     * @param down if the key is held down
+     */
+    private void hold(KeyCode key, boolean down) {
+        if (down)
+            input.press(key);
+        else
+            input.release(key);
+    }
+
+    /**
+     * Moves the spawnpoint to a checkpoint.
+     *
+     * @param platform checkpoint touched
+     * @return always true
+     */
+    private boolean touchCheckpoint(int platform) {
+        spawn[0] = platforms.getLeft(platform) - PLATFORM_SIZE / 4;
+        spawn[1] = platforms.getTop(platform) - PLATFORM_SIZE / 4;
+        return true;
+    }
+
+    /**
+     * Sends the player back to spawn when the finish is touched.
+     *
+     * @param platform finish touched
+     * @return always true
+     */
+    private boolean touchFinish(int platform) {
+        finishes++;
+        player.setPosition(spawn[0], spawn[1]);
+        return true;
+    }
+
+    /**
+     * Sends the player back to spawn when lava is touched.
+     *
+     * @param platform lava touched
+     * @return always true
+     */
+    private boolean touchLava(int platform) {
+        deaths++;
+        player.setPosition(spawn[0], spawn[1]);
+        return true;
+    }
+
+}
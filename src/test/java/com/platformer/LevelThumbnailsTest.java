@@ -0,0 +1,158 @@
+package com.platformer;
+
+// junit imports
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+// other imports
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Tests of the drawing, hashing, and saving of {@link LevelThumbnails}, without showing them.
+ */
+class LevelThumbnailsTest {
+
+    /**
+     * Level of two rows of ground, four tiles wide.
+     */
+    private static final String[] LEVEL = {"wwww", "w  w"};
+
+    /**
+     * Colour of ground, as ARGB.
+     */
+    private static final int GROUND = 0xFF336699;
+
+    /**
+     * Colour of empty space, as ARGB.
+     */
+    private static final int EMPTY = 0xFFD9D9D9;
+
+    /**
+     * Folder the thumbnails are saved in, emptied for each test.
+     */
+    @TempDir
+    Path folder;
+
+    /**
+     * Colour of each symbol, as ARGB.
+     */
+    private final int[] palette = new int[128];
+
+    /**
+     * Colours only ground.
+     */
+    LevelThumbnailsTest() {
+        Arrays.fill(palette, EMPTY);
+        palette['w'] = GROUND;
+    }
+
+    @Test
+    void drawKeepsShape() {
+        int[] pixels = LevelThumbnails.draw(LEVEL, palette);
+        assertEquals(LevelThumbnails.WIDTH * LevelThumbnails.HEIGHT, pixels.length);
+
+        // 4 by 2 tiles scaled by 22.5 fill the width, and leave a pixel above and below
+        assertEquals(0, pixels[0]);
+        assertEquals(GROUND, pixel(pixels, 0, 1));
+        assertEquals(GROUND, pixel(pixels, 89, 1));
+        assertEquals(EMPTY, pixel(pixels, 30, 30));
+        assertEquals(GROUND, pixel(pixels, 10, 30));
+        assertEquals(0, pixel(pixels, 45, 47));
+    }
+
+    @Test
+    void hashMatchesSavedThumbnails() throws NoSuchAlgorithmException {
+        // each colour used to be hashed as its own four bytes, big-endian
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update((LevelThumbnails.WIDTH + "x" + LevelThumbnails.HEIGHT + "\n").getBytes(StandardCharsets.UTF_8));
+        for (int color : palette)
+            digest.update(new byte[]{(byte) (color >>> 24), (byte) (color >>> 16), (byte) (color >>> 8), (byte) color});
+        for (String row : LEVEL)
+            digest.update((row + "\n").getBytes(StandardCharsets.UTF_8));
+        assertEquals(HexFormat.of().formatHex(digest.digest()), LevelThumbnails.hash(LEVEL, palette));
+    }
+
+    @Test
+    void hashChangesWithLevelAndColours() {
+        String hash = LevelThumbnails.hash(LEVEL, palette);
+        assertEquals(hash, LevelThumbnails.hash(LEVEL.clone(), palette.clone()));
+        assertNotEquals(hash, LevelThumbnails.hash(new String[]{"wwww", "ww w"}, palette));
+
+        int[] recoloured = palette.clone();
+        recoloured['w'] = 0xFF000000;
+        assertNotEquals(hash, LevelThumbnails.hash(LEVEL, recoloured));
+    }
+
+    @Test
+    void writeThenRead() {
+        int[] pixels = LevelThumbnails.draw(LEVEL, palette);
+        Path file = folder.resolve("nested").resolve("level.thumb");
+        LevelThumbnails.write(file, pixels);
+        assertArrayEquals(pixels, LevelThumbnails.read(file));
+
+        // no temporary file is left behind
+        try (var files = Files.list(file.getParent())) {
+            assertEquals(1, files.count());
+        }
+        catch (IOException e) { fail(e); }
+    }
+
+    @Test
+    void readRejectsBadFiles() throws IOException {
+        assertNull(LevelThumbnails.read(folder.resolve("missing.thumb")));
+
+        // another size
+        Path resized = folder.resolve("resized.thumb");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(resized))) {
+            out.writeInt(LevelThumbnails.WIDTH + 1);
+            out.writeInt(LevelThumbnails.HEIGHT);
+        }
+        assertNull(LevelThumbnails.read(resized));
+
+        // cut short
+        Path truncated = folder.resolve("truncated.thumb");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(truncated))) {
+            out.writeInt(LevelThumbnails.WIDTH);
+            out.writeInt(LevelThumbnails.HEIGHT);
+            out.writeInt(GROUND);
+        }
+        assertNull(LevelThumbnails.read(truncated));
+    }
+
+    @Test
+    void savedThumbnailIsReadBack() {
+        int[] drawn = LevelThumbnails.pixels(folder, LEVEL, palette);
+        Path file = folder.resolve(LevelThumbnails.hash(LEVEL, palette) + ".thumb");
+        assertTrue(Files.isRegularFile(file));
+
+        // a saved thumbnail is used instead of drawing the level again
+        int[] saved = new int[drawn.length];
+        Arrays.fill(saved, 0xFF00FF00);
+        LevelThumbnails.write(file, saved);
+        assertArrayEquals(saved, LevelThumbnails.pixels(folder, LEVEL, palette));
+
+        // a changed level is drawn again
+        String[] changed = {"wwww", "ww w"};
+        assertArrayEquals(LevelThumbnails.draw(changed, palette), LevelThumbnails.pixels(folder, changed, palette));
+    }
+
+    /**
+     * @param pixels pixels of a thumbnail
+     * @param x x coordinate of the pixel
+     * @param y y coordinate of the pixel
+     * @return colour of the pixel, as ARGB
+     */
+    private static int pixel(int[] pixels, int x, int y) {
+        return pixels[y * LevelThumbnails.WIDTH + x];
+    }
+
+}
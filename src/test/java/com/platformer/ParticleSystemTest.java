@@ -0,0 +1,145 @@
+package com.platformer;
+
+// junit imports
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+// other imports
+import java.lang.management.ManagementFactory;
+import javafx.scene.paint.Color;
+
+/**
+ * Tests of {@link ParticleSystem}, with frames drawn onto a canvas that is never shown.
+ */
+class ParticleSystemTest {
+
+    /**
+     * One frame at 60 frames per second, in nanoseconds.
+     */
+    private static final long FRAME = 16_666_667;
+
+    /**
+     * Particle system under test.
+     */
+    private final ParticleSystem particles = new ParticleSystem(200, 100);
+
+    /**
+     * Index of the only colour.
+     */
+    private final int red = particles.addColor(Color.RED);
+
+    /**
+     * Time of the last frame, in nanoseconds.
+     */
+    private long now = 1;
+
+    @Test
+    void burstSpawnsAtNextFrame() {
+        assertTrue(particles.isEmpty());
+        particles.burst(50, 50, 100, red);
+        assertFalse(particles.isEmpty());
+        assertEquals(0, particles.size());
+
+        frame();
+        assertEquals(100, particles.size());
+    }
+
+    @Test
+    void fullRingDropsBursts() {
+        for (int i = 0; i < 100; i++)
+            particles.burst(50, 50, 1, red);
+        frame();
+        assertEquals(64, particles.size());
+
+        // the ring has room again once spawned
+        particles.burst(50, 50, 1, red);
+        frame();
+        assertEquals(65, particles.size());
+    }
+
+    @Test
+    void ringWrapsAround() {
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 50; i++)
+                particles.burst(50, 50, 1, red);
+            frame();
+        }
+        assertEquals(500, particles.size());
+    }
+
+    @Test
+    void capacityLimitsParticles() {
+        particles.burst(50, 50, 10_000, red);
+        frame();
+        assertEquals(8192, particles.size());
+    }
+
+    @Test
+    void particlesDie() {
+        particles.burst(50, 50, 1000, red);
+        frame();
+        assertEquals(1000, particles.size());
+
+        // particles live at most a second
+        for (int i = 0; i < 2 * 60 && particles.size() > 0; i++)
+            frame();
+        assertEquals(0, particles.size());
+
+        // one more frame clears what was drawn
+        frame();
+        assertTrue(particles.isEmpty());
+    }
+
+    @Test
+    void clearDropsBurstsWaiting() {
+        particles.burst(50, 50, 100, red);
+        particles.clear();
+        frame();
+        assertEquals(0, particles.size());
+    }
+
+    @Test
+    void burstAllocatesNothing() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        for (int i = 0; i < 10_000; i++) {
+            particles.burst(50, 50, 1, red);
+            particles.clear();
+        }
+
+        threads.getCurrentThreadAllocatedBytes();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 60; i++)
+            particles.burst(50, 50, 1, red);
+        assertEquals(0, threads.getCurrentThreadAllocatedBytes() - before);
+    }
+
+    @Test
+    void burstsFromAnotherThread() throws InterruptedException {
+        Thread simulation = new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+                particles.burst(50, 50, 1, red);
+                Thread.onSpinWait();
+            }
+        });
+        simulation.start();
+
+        // frames without time passing, so no particle dies
+        while (simulation.isAlive())
+            particles.update(now, 0, 0);
+        simulation.join();
+        particles.update(now, 0, 0);
+
+        // every burst is spawned or dropped, never spawned twice
+        assertTrue(particles.size() > 0 && particles.size() <= 1000, particles.size() + " particles spawned");
+    }
+
+    /**
+     * Runs one frame, one frame length after the last.
+     */
+    private void frame() {
+        now += FRAME;
+        particles.update(now, 0, 0);
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.platformer;
+
+// junit imports
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+// other imports
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Tests of {@link SimulationLoop}, with ticks that block until the test lets them finish.
+ */
+class SimulationLoopTest {
+
+    /**
+     * Counted down when a tick starts.
+     */
+    private final CountDownLatch entered = new CountDownLatch(1);
+
+    /**
+     * Counted down to let the ticks finish.
+     */
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    /**
+     * Number of ticks finished.
+     */
+    private final AtomicInteger ticks = new AtomicInteger();
+
+    /**
+     * Result of each tick.
+     */
+    private volatile boolean changing = true;
+
+    /**
+     * Loop whose ticks wait for {@link SimulationLoopTest#release}, and report whether anything can change.
+     */
+    private final SimulationLoop loop = new SimulationLoop("test", 1000, 5) {
+        @Override
+        protected boolean tick(long time) {
+            entered.countDown();
+            try { release.await(); }
+            catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+            ticks.incrementAndGet();
+            return changing;
+        }
+    };
+
+    @Test
+    void wakeDoesNotWaitForTick() throws InterruptedException {
+        loop.start();
+        assertTrue(entered.await(1, TimeUnit.SECONDS));
+
+        // the tick is still blocked
+        assertTimeoutPreemptively(Duration.ofSeconds(1), loop::wake);
+        assertTimeoutPreemptively(Duration.ofSeconds(1), loop::isActive);
+        assertEquals(0, ticks.get());
+        release.countDown();
+        loop.stop();
+    }
+
+    @Test
+    void stopWaitsForTick() throws InterruptedException {
+        loop.start();
+        assertTrue(entered.await(1, TimeUnit.SECONDS));
+
+        // let the tick finish a little after stopping
+        Thread releaser = new Thread(() -> {
+            try { Thread.sleep(50); }
+            catch (InterruptedException e) { return; }
+            release.countDown();
+        });
+        releaser.start();
+        assertTrue(loop.stop());
+        int stoppedAt = ticks.get();
+        assertEquals(1, stoppedAt);
+
+        // no tick runs while stopped
+        Thread.sleep(20);
+        assertEquals(stoppedAt, ticks.get());
+        assertFalse(loop.stop());
+    }
+
+    @Test
+    void sleepsUntilWoken() throws InterruptedException {
+        changing = false;
+        release.countDown();
+        loop.start();
+        waitFor(() -> !loop.isActive());
+        int sleptAt = ticks.get();
+        assertEquals(1, sleptAt);
+
+        // sleeping runs no ticks, until woken
+        Thread.sleep(20);
+        assertEquals(sleptAt, ticks.get());
+        loop.wake();
+        waitFor(() -> ticks.get() > sleptAt);
+        loop.stop();
+    }
+
+    /**
+     * Waits up to a second for a condition to be true.
+     *
+     * @param condition condition to wait for
+     */
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 1_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within a second");
+            Thread.sleep(1);
+        }
+    }
+
+}
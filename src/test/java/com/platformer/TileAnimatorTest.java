@@ -0,0 +1,120 @@
+package com.platformer;
+
+// junit imports
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+// other imports
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests of {@link TileAnimator}, with a row of pulsing tiles and a row of flowing tiles.
+ */
+class TileAnimatorTest implements GameValues, RectangleTypes {
+
+    /**
+     * Number of tiles of each kind.
+     */
+    private static final int TILES = 200;
+
+    /**
+     * Nanoseconds in a second.
+     */
+    private static final long SECOND = 1_000_000_000L;
+
+    /**
+     * Animator under test.
+     */
+    private final TileAnimator animator = new TileAnimator();
+
+    /**
+     * Layer of the pulsing tiles.
+     */
+    private final CullingLayer pulse;
+
+    /**
+     * Group of the flowing stripes, clipped to the flowing tiles.
+     */
+    private final Group flow;
+
+    /**
+     * Adds a row of checkpoints, pulsing once a second, above a row of lava flowing once a second,
+     * at the left end of a level twice as wide as the rows.
+     */
+    TileAnimatorTest() {
+        animator.pulse(CHECKPOINT_TYPE, Color.WHITE, 0.5, 1);
+        animator.flow(LAVA_TYPE, Color.YELLOW, 1);
+        for (int i = 0; i < TILES; i++) {
+            animator.add(i * PLATFORM_SIZE, 0, PLATFORM_SIZE, PLATFORM_SIZE, CHECKPOINT_TYPE);
+            animator.add(i * PLATFORM_SIZE, PLATFORM_SIZE, PLATFORM_SIZE, PLATFORM_SIZE, LAVA_TYPE);
+        }
+        animator.finish(2 * TILES * PLATFORM_SIZE, 2 * PLATFORM_SIZE);
+        animator.setViewport(0, 0, WINDOW_WIDTH, WINDOW_HEIGHT);
+
+        List<Node> kinds = ((Group) animator.getNode()).getChildren();
+        pulse = (CullingLayer) kinds.get(0);
+        flow = (Group) kinds.get(1);
+    }
+
+    @Test
+    void pulseMovesLayerOpacity() {
+        animator.update(0);
+        assertEquals(0, pulse.getOpacity(), 1e-9);
+        animator.update(SECOND / 2);
+        assertEquals(1, pulse.getOpacity(), 1e-9);
+        animator.update(SECOND / 4);
+        assertEquals(0.5, pulse.getOpacity(), 1e-9);
+    }
+
+    @Test
+    void overlaysNeverChange() {
+        List<Node> overlays = new ArrayList<>(pulse.getChildren());
+        overlays.addAll(((Group) flow.getClip()).getChildren());
+        assertFalse(overlays.isEmpty());
+        List<Paint> fills = new ArrayList<>();
+        for (Node overlay : overlays)
+            fills.add(((Rectangle) overlay).getFill());
+
+        // many frames, without moving the viewport
+        for (long now = 0; now < 2 * SECOND; now += SECOND / 60)
+            animator.update(now);
+        for (int i = 0; i < overlays.size(); i++)
+            assertSame(fills.get(i), ((Rectangle) overlays.get(i)).getFill());
+    }
+
+    @Test
+    void flowMovesStripes() {
+        Rectangle stripes = (Rectangle) flow.getChildren().get(0);
+        assertTrue(stripes.getWidth() >= WINDOW_WIDTH + 2 * TileAnimator.STRIPE_LENGTH);
+
+        // a repeat before the viewport, moving right over the period
+        animator.update(0);
+        assertEquals(-TileAnimator.STRIPE_LENGTH, stripes.getTranslateX(), 1e-9);
+        assertEquals(-PLATFORM_SIZE, stripes.getTranslateY(), 1e-9);
+        animator.update(SECOND / 2);
+        assertEquals(-TileAnimator.STRIPE_LENGTH / 2, stripes.getTranslateX(), 1e-9);
+
+        // lined up with the level wherever the viewport is
+        animator.setViewport(1000, 0, WINDOW_WIDTH, WINDOW_HEIGHT);
+        animator.update(0);
+        assertEquals(0, stripes.getTranslateX() % TileAnimator.STRIPE_LENGTH, 1e-9);
+        assertTrue(stripes.getTranslateX() <= 1000);
+    }
+
+    @Test
+    void onlyTilesNearCameraAreAttached() {
+        assertTrue(animator.isAnimating());
+        assertTrue(pulse.getChildren().size() < TILES);
+
+        // nothing near a viewport at the right end of the level
+        animator.setViewport(2 * TILES * PLATFORM_SIZE - WINDOW_WIDTH, 0, WINDOW_WIDTH, WINDOW_HEIGHT);
+        assertFalse(animator.isAnimating());
+        assertTrue(pulse.getChildren().isEmpty());
+    }
+
+}